@@ -0,0 +1,181 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+
+/**
+ * Berlekamp-Welch decoding of Reed-Solomon codewords over a prime field.  The Y values of
+ * the parts of a secret, at their X coordinates, are a codeword of the polynomials of degree
+ * less than {@code requiredParts}; given {@code n} points of which at most {@code e} are wrong,
+ * with {@code n >= requiredParts + 2e}, the polynomial is recovered by solving one linear system
+ * of {@code n} equations in {@code requiredParts + 2e} unknowns.
+ * @author Robin Kirkman
+ *
+ */
+abstract class BerlekampWelch {
+	/**
+	 * Find the polynomial of degree less than {@code requiredParts} that agrees with all but
+	 * at most {@code errors} of the points {@code (x[i], y[i])}.  Finds the error locator
+	 * {@code E}, monic of degree {@code errors}, and {@code Q} of degree less than
+	 * {@code requiredParts + errors}, with {@code Q(x[i]) = y[i] E(x[i])} at every point;
+	 * the polynomial is then {@code Q / E}.
+	 * @param x The X coordinates, distinct modulo {@code modulus}
+	 * @param y The Y values, in {@code [0, modulus)}
+	 * @param requiredParts The number of coefficients of the polynomial
+	 * @param errors The greatest number of wrong points to correct
+	 * @param modulus The prime modulus
+	 * @return The coefficients of the polynomial, lowest first, or {@code null} if no polynomial
+	 * of degree less than {@code requiredParts} agrees with all but {@code errors} points
+	 */
+	static BigInteger[] decode(BigInteger[] x, BigInteger[] y, int requiredParts, int errors, BigInteger modulus) {
+		int n = x.length;
+		int qn = requiredParts + errors;
+		int cols = qn + errors;
+		// row i: sum q[m] x^m - y sum e[m] x^m = y x^errors, augmented in the last column
+		BigInteger[][] a = new BigInteger[n][cols + 1];
+		for(int i = 0; i < n; i++) {
+			BigInteger pow = BigInteger.ONE;
+			for(int m = 0; m < qn; m++) {
+				a[i][m] = pow;
+				if(m < errors)
+					a[i][qn + m] = y[i].multiply(pow).negate().mod(modulus);
+				if(m == errors)
+					a[i][cols] = y[i].multiply(pow).mod(modulus);
+				pow = pow.multiply(x[i]).mod(modulus);
+			}
+		}
+		BigInteger[] solution = solve(a, cols, modulus);
+		if(solution == null)
+			return null;
+		
+		BigInteger[] q = new BigInteger[qn];
+		System.arraycopy(solution, 0, q, 0, qn);
+		BigInteger[] e = new BigInteger[errors + 1];
+		System.arraycopy(solution, qn, e, 0, errors);
+		e[errors] = BigInteger.ONE;
+		BigInteger[] p = divide(q, e, modulus);
+		if(p == null || p.length > requiredParts)
+			return null;
+		
+		int wrong = 0;
+		for(int i = 0; i < n; i++) {
+			if(!evaluate(p, x[i], modulus).equals(y[i]))
+				wrong++;
+		}
+		return wrong <= errors ? p : null;
+	}
+	
+	/**
+	 * Evaluate a polynomial
+	 * @param p The coefficients, lowest first
+	 * @param x The X coordinate
+	 * @param modulus The prime modulus
+	 * @return The value, in {@code [0, modulus)}
+	 */
+	static BigInteger evaluate(BigInteger[] p, BigInteger x, BigInteger modulus) {
+		BigInteger y = BigInteger.ZERO;
+		for(int c = p.length - 1; c >= 0; c--)
+			y = y.multiply(x).add(p[c]).mod(modulus);
+		return y;
+	}
+	
+	/**
+	 * Solve a linear system by Gaussian elimination, setting free unknowns to zero
+	 * @param a The augmented matrix, {@code cols + 1} wide, which is overwritten
+	 * @param cols The number of unknowns
+	 * @param modulus The prime modulus
+	 * @return The unknowns, or {@code null} if the system has no solution
+	 */
+	private static BigInteger[] solve(BigInteger[][] a, int cols, BigInteger modulus) {
+		int rows = a.length;
+		int[] pivotCol = new int[rows];
+		int rank = 0;
+		for(int c = 0; c < cols && rank < rows; c++) {
+			int r = rank;
+			while(r < rows && a[r][c].signum() == 0)
+				r++;
+			if(r == rows)
+				continue;
+			BigInteger[] t = a[r];
+			a[r] = a[rank];
+			a[rank] = t;
+			BigInteger inv = t[c].modInverse(modulus);
+			for(int k = c; k <= cols; k++)
+				t[k] = t[k].multiply(inv).mod(modulus);
+			for(int i = 0; i < rows; i++) {
+				if(i == rank || a[i][c].signum() == 0)
+					continue;
+				BigInteger f = a[i][c];
+				for(int k = c; k <= cols; k++)
+					a[i][k] = a[i][k].subtract(f.multiply(t[k])).mod(modulus);
+			}
+			pivotCol[rank++] = c;
+		}
+		for(int i = rank; i < rows; i++) {
+			if(a[i][cols].signum() != 0)
+				return null;
+		}
+		BigInteger[] solution = new BigInteger[cols];
+		for(int c = 0; c < cols; c++)
+			solution[c] = BigInteger.ZERO;
+		for(int i = 0; i < rank; i++)
+			solution[pivotCol[i]] = a[i][cols];
+		return solution;
+	}
+	
+	/**
+	 * Divide one polynomial by a monic polynomial
+	 * @param num The dividend, lowest coefficient first
+	 * @param den The monic divisor, lowest coefficient first
+	 * @param modulus The prime modulus
+	 * @return The quotient with trailing zero coefficients dropped, or {@code null} if the remainder is not zero
+	 */
+	private static BigInteger[] divide(BigInteger[] num, BigInteger[] den, BigInteger modulus) {
+		BigInteger[] r = num.clone();
+		int dn = den.length - 1;
+		int qlen = Math.max(r.length - dn, 0);
+		BigInteger[] q = new BigInteger[qlen];
+		for(int i = qlen - 1; i >= 0; i--) {
+			BigInteger c = r[i + dn];
+			q[i] = c;
+			if(c.signum() == 0)
+				continue;
+			for(int j = 0; j <= dn; j++)
+				r[i + j] = r[i + j].subtract(c.multiply(den[j])).mod(modulus);
+		}
+		for(int i = 0; i < Math.min(dn, r.length); i++) {
+			if(r[i].signum() != 0)
+				return null;
+		}
+		int len = qlen;
+		while(len > 0 && q[len - 1].signum() == 0)
+			len--;
+		BigInteger[] p = new BigInteger[len];
+		System.arraycopy(q, 0, p, 0, len);
+		return p;
+	}
+	
+	private BerlekampWelch() {}
+}
@@ -0,0 +1,269 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Arithmetic for {@link BlockPart}s, where a secret is cut into fixed-size blocks
+ * and every block is shared as a separate Y value over the same prime
+ * and the same X coordinates.<p>
+ * 
+ * A block of {@code blockSize} bytes is a number less than {@code 2^(8*blockSize)},
+ * so the prime for a block size is the smallest prime greater than that.  Each
+ * Y value is a residue of that prime, stored big-endian in {@code blockSize + 1} bytes.
+ * The final block of a secret may be shorter than {@code blockSize}.
+ * @author Robin Kirkman
+ *
+ */
+abstract class BlockField {
+	/**
+	 * Cache of primes by block size
+	 */
+	private static final ConcurrentMap<Integer, BigInteger> PRIMES = new ConcurrentHashMap<Integer, BigInteger>();
+	
+	/**
+	 * Return the prime used for blocks of {@code blockSize} bytes
+	 * @param blockSize The block size, in bytes
+	 * @return The smallest prime greater than {@code 2^(8*blockSize)}
+	 */
+	static BigInteger prime(int blockSize) {
+		BigInteger p = PRIMES.get(blockSize);
+		if(p == null) {
+			p = BigInteger.ONE.shiftLeft(8 * blockSize).nextProbablePrime();
+			PRIMES.putIfAbsent(blockSize, p);
+		}
+		return p;
+	}
+	
+	/**
+	 * Return the number of blocks in a secret
+	 * @param length The length of the secret, in bytes
+	 * @param blockSize The block size, in bytes
+	 * @return The number of blocks
+	 */
+	static int blocks(int length, int blockSize) {
+		return (length + blockSize - 1) / blockSize;
+	}
+	
+	/**
+	 * Split a range of blocks of a secret, writing the Y value of each
+	 * block into the buffer of each part.
+	 * @param secret The secret
+	 * @param blockSize The block size, in bytes
+	 * @param from The index of the first block to split
+	 * @param to The index after the last block to split
+	 * @param xs The X coordinate of each part
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param modulus The prime for {@code blockSize}
+	 * @param rnd A source of random coefficients
+	 * @param ys The Y value buffer of each part, parallel to {@code xs}
+	 * @param yoff The offset in each Y value buffer of the Y value for block zero
+	 */
+	static void split(byte[] secret, int blockSize, int from, int to, BigInteger[] xs, int requiredParts, BigInteger modulus, RandomCoefficients rnd, byte[][] ys, int yoff) {
+		BigInteger[] coefficients = new BigInteger[Math.max(requiredParts, 1)];
+		for(int b = from; b < to; b++) {
+			int off = b * blockSize;
+			int len = Math.min(blockSize, secret.length - off);
+			coefficients[0] = new BigInteger(1, copy(secret, off, len));
+			for(int j = 1; j < coefficients.length; j++)
+				coefficients[j] = rnd.nextBigInteger(modulus);
+			for(int j = 0; j < xs.length; j++) {
+				BigInteger y = BigInteger.ZERO;
+				for(int c = coefficients.length - 1; c >= 0; c--)
+					y = y.multiply(xs[j]).add(coefficients[c]).mod(modulus);
+				put(y, ys[j], yoff + b * (blockSize + 1), blockSize + 1);
+			}
+		}
+	}
+	
+	/**
+	 * Join a range of blocks of a secret from the Y values of the parts, using
+	 * Lagrange weights previously computed by
+	 * {@link ModularPolynomial#lagrangeWeights(BigInteger[], BigInteger, BigInteger)}
+	 * @param ys The Y value buffer of each part, parallel to {@code weights}
+	 * @param yoff The offset in each Y value buffer of the Y value for block zero
+	 * @param weights The Lagrange weights at zero for the X coordinates of the parts
+	 * @param modulus The prime for {@code blockSize}
+	 * @param blockSize The block size, in bytes
+	 * @param from The index of the first block to join
+	 * @param to The index after the last block to join
+	 * @param secret The buffer for the reconstructed secret
+	 * @param off The offset of the reconstructed secret in {@code secret}
+	 * @param length The length of the reconstructed secret
+	 */
+	static void join(byte[][] ys, int yoff, BigInteger[] weights, BigInteger modulus, int blockSize, int from, int to, byte[] secret, int off, int length) {
+		byte[] y = new byte[blockSize + 1];
+		for(int b = from; b < to; b++) {
+			int pos = yoff + b * (blockSize + 1);
+			BigInteger s = BigInteger.ZERO;
+			for(int j = 0; j < weights.length; j++) {
+				System.arraycopy(ys[j], pos, y, 0, y.length);
+				s = s.add(weights[j].multiply(new BigInteger(1, y)));
+			}
+			int boff = b * blockSize;
+			put(s.mod(modulus), secret, off + boff, Math.min(blockSize, length - boff));
+		}
+	}
+	
+	/**
+	 * Evaluate the polynomials through a set of parts at another X coordinate, writing
+	 * the Y value of each block for a new part
+	 * @param ys The Y value buffer of each part
+	 * @param weights The Lagrange weights of the parts at the new X coordinate
+	 * @param modulus The prime for {@code blockSize}
+	 * @param blockSize The number of secret bytes in each block
+	 * @param blocks The number of blocks
+	 * @param y The Y value buffer of the new part
+	 * @param yoff The offset in {@code y} of the Y value for block zero
+	 */
+	static void extend(byte[][] ys, BigInteger[] weights, BigInteger modulus, int blockSize, int blocks, byte[] y, int yoff) {
+		byte[] b = new byte[blockSize + 1];
+		for(int i = 0; i < blocks; i++) {
+			int pos = i * (blockSize + 1);
+			BigInteger s = BigInteger.ZERO;
+			for(int j = 0; j < weights.length; j++) {
+				System.arraycopy(ys[j], pos, b, 0, b.length);
+				s = s.add(weights[j].multiply(new BigInteger(1, b)));
+			}
+			put(s.mod(modulus), y, yoff + pos, blockSize + 1);
+		}
+	}
+	
+	/**
+	 * Check which of several parts lie on the polynomials through a set of parts, one polynomial
+	 * per block.  The Y values of the set are decoded once per block for every part checked.
+	 * @param ys The Y value buffer of each part in the set
+	 * @param weights The Lagrange weights of the set at the X coordinate of each part checked
+	 * @param modulus The prime for {@code blockSize}
+	 * @param blockSize The number of secret bytes in each block
+	 * @param blocks The number of blocks
+	 * @param checks The Y value buffer of each part checked, parallel to {@code weights}
+	 * @param bad Set to {@code true} for each part checked that does not lie on the polynomials
+	 */
+	static void verify(byte[][] ys, BigInteger[][] weights, BigInteger modulus, int blockSize, int blocks, byte[][] checks, boolean[] bad) {
+		byte[] b = new byte[blockSize + 1];
+		BigInteger[] v = new BigInteger[ys.length];
+		for(int i = 0; i < blocks; i++) {
+			int pos = i * (blockSize + 1);
+			for(int j = 0; j < ys.length; j++) {
+				System.arraycopy(ys[j], pos, b, 0, b.length);
+				v[j] = new BigInteger(1, b);
+			}
+			for(int e = 0; e < checks.length; e++) {
+				if(bad[e])
+					continue;
+				BigInteger s = BigInteger.ZERO;
+				for(int j = 0; j < v.length; j++)
+					s = s.add(weights[e][j].multiply(v[j]));
+				System.arraycopy(checks[e], pos, b, 0, b.length);
+				bad[e] = !s.mod(modulus).equals(new BigInteger(1, b));
+			}
+		}
+	}
+	
+	/**
+	 * Split a secret again from the Y values of its parts, recovering and splitting about
+	 * {@code chunkSize} secret bytes of whole blocks at a time so that the secret is never held whole
+	 * @param ys The Y value buffer of each old part, parallel to {@code weights}
+	 * @param weights The Lagrange weights at zero of the old parts
+	 * @param modulus The prime for {@code blockSize}
+	 * @param blockSize The number of secret bytes in each block
+	 * @param length The length of the secret
+	 * @param chunkSize The number of secret bytes to recover at a time
+	 * @param xs The X coordinate of each new part
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @param fresh The Y value buffer of each new part, parallel to {@code xs}
+	 * @param yoff The offset in each new Y value buffer of the Y value for block zero
+	 */
+	static void reshare(byte[][] ys, BigInteger[] weights, BigInteger modulus, int blockSize, int length, int chunkSize, BigInteger[] xs, int requiredParts, RandomCoefficients rnd, byte[][] fresh, int yoff) {
+		int blocks = blocks(length, blockSize);
+		int chunkBlocks = Math.max(1, chunkSize / blockSize);
+		byte[] chunk = null;
+		for(int from = 0; from < blocks; from += chunkBlocks) {
+			int to = Math.min(blocks, from + chunkBlocks);
+			int len = Math.min(length, to * blockSize) - from * blockSize;
+			if(chunk == null || chunk.length != len)
+				chunk = new byte[len];
+			join(ys, 0, weights, modulus, blockSize, from, to, chunk, -from * blockSize, length);
+			split(chunk, blockSize, 0, to - from, xs, requiredParts, modulus, rnd, fresh, yoff + from * (blockSize + 1));
+			Arrays.fill(chunk, (byte) 0);
+		}
+	}
+	
+	/**
+	 * Sum the block Y values of a part with one weight per block.  The Y values for
+	 * each block are a codeword of the same code, so the sum is a codeword too.
+	 * @param y The Y value buffer of the part
+	 * @param weights The weight of each block
+	 * @param modulus The prime for {@code blockSize}
+	 * @param blockSize The number of secret bytes in each block
+	 * @return The weighted sum, in {@code [0, modulus)}
+	 */
+	static BigInteger combine(byte[] y, BigInteger[] weights, BigInteger modulus, int blockSize) {
+		byte[] b = new byte[blockSize + 1];
+		BigInteger s = BigInteger.ZERO;
+		for(int i = 0; i < weights.length; i++) {
+			System.arraycopy(y, i * (blockSize + 1), b, 0, b.length);
+			s = s.add(weights[i].multiply(new BigInteger(1, b)));
+		}
+		return s.mod(modulus);
+	}
+	
+	/**
+	 * Copy a range of bytes
+	 * @param b The source array
+	 * @param off The offset of the range
+	 * @param len The length of the range
+	 * @return A new array
+	 */
+	private static byte[] copy(byte[] b, int off, int len) {
+		byte[] c = new byte[len];
+		System.arraycopy(b, off, c, 0, len);
+		return c;
+	}
+	
+	/**
+	 * Write a non-negative {@link BigInteger} big-endian into exactly {@code len} bytes,
+	 * dropping its sign byte and padding with leading zeros
+	 * @param val The value, which must fit in {@code len} bytes
+	 * @param dst The destination array
+	 * @param off The offset in the destination array
+	 * @param len The number of bytes to write
+	 */
+	static void put(BigInteger val, byte[] dst, int off, int len) {
+		byte[] b = val.toByteArray();
+		int skip = Math.max(0, b.length - len);
+		int pad = Math.max(0, len - b.length);
+		for(int i = 0; i < pad; i++)
+			dst[off + i] = 0;
+		System.arraycopy(b, skip, dst, off + pad, b.length - skip);
+	}
+	
+	private BlockField() {}
+}
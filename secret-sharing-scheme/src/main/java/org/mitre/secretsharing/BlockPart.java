@@ -0,0 +1,94 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * A part of a shared secret that was first cut into fixed-size blocks.<p>
+ * 
+ * Each block of {@link #getBlockSize()} bytes is shared separately over the
+ * same prime {@link #getModulus()}, with the single X coordinate of this part
+ * used for every block.  The Y value of each block is stored, big-endian and
+ * {@code blockSize + 1} bytes long, in the Y coordinate of this part.
+ * 
+ * @author Robin Kirkman
+ *
+ */
+public class BlockPart extends Part {
+	/**
+	 * The default block size, in bytes
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 32;
+	
+	/**
+	 * The number of secret bytes in each block
+	 */
+	private int blockSize;
+	
+	/**
+	 * Create a {@link BlockPart} to hold a block-split secret part
+	 * @param version The version this part was formatted with
+	 * @param length The number of bytes in the secret
+	 * @param requiredParts How many parts are required to reconstruct the secret
+	 * @param modulus The prime modulus for each block
+	 * @param blockSize The number of secret bytes in each block
+	 * @param point The {@link BigPoint} representing this secret part
+	 */
+	public BlockPart(int version, int length, int requiredParts, BigInteger modulus, int blockSize, BigPoint point) {
+		super(version, length, requiredParts, modulus, point);
+		InputValidation.begin()
+			.when(blockSize < 1, "blockSize is less than 1")
+			.when(modulus.bitLength() <= 8 * blockSize, "modulus is too small for blockSize")
+			.when(modulus.bitLength() > 8 * (blockSize + 1), "modulus is too large for blockSize")
+			.validate();
+		this.blockSize = blockSize;
+	}
+	
+	/**
+	 * Return the number of secret bytes in each block
+	 * @return The block size
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	@Override
+	public byte[] join(Part... otherParts) {
+		InputValidation iv = InputValidation.begin()
+			.when(otherParts == null, "otherParts is null")
+			.validate();
+		BlockPart[] parts = new BlockPart[otherParts.length + 1];
+		parts[0] = this;
+		for(int i = 0; i < otherParts.length; i++) {
+			iv
+				.when(!(otherParts[i] instanceof BlockPart), "cannot apply block join to other parts")
+				.validate();
+			parts[i+1] = (BlockPart) otherParts[i];
+		}
+		return Secrets.joinBlocks(parts);
+	}
+}
@@ -0,0 +1,66 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+/**
+ * A secret recovered by {@link Secrets#joinCorrecting(Part[])}, together with
+ * the parts found not to agree with it.
+ * @author Robin Kirkman
+ *
+ */
+public class CorrectedSecret {
+	/**
+	 * The recovered secret
+	 */
+	private byte[] secret;
+	/**
+	 * The parts that do not agree with the secret
+	 */
+	private Part[] badParts;
+	
+	/**
+	 * Create a new {@link CorrectedSecret}
+	 * @param secret The recovered secret
+	 * @param badParts The parts that do not agree with the secret
+	 */
+	CorrectedSecret(byte[] secret, Part[] badParts) {
+		this.secret = secret;
+		this.badParts = badParts;
+	}
+	
+	/**
+	 * Returns the recovered secret
+	 * @return The secret
+	 */
+	public byte[] getSecret() {
+		return secret.clone();
+	}
+	
+	/**
+	 * Returns the parts that do not agree with the recovered secret, in the order they were given
+	 * @return The corrupted parts, empty if there were none
+	 */
+	public Part[] getBadParts() {
+		return badParts.clone();
+	}
+}
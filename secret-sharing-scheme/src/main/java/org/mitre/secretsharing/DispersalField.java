@@ -0,0 +1,161 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Arithmetic for {@link DispersalPart}s.  The secret is cut into {@code dataSymbols}
+ * lanes of {@link #laneLength(int, int)} bytes, the last lane padded with zeros, and each
+ * lane into blocks of {@code blockSize} bytes.  Stripe {@code s} is block {@code s} of every lane.<p>
+ * 
+ * The polynomial of a stripe is fixed by its values at {@code requiredParts} defining
+ * X coordinates {@code -1, -2, ..., -requiredParts} modulo the prime: the first {@code dataSymbols}
+ * are the blocks of the stripe and the rest are random.  Parts are evaluations of the
+ * polynomial at other X coordinates, computed as a fixed linear combination of the
+ * defining values with Lagrange weights, so no polynomial is built per stripe.
+ * Y values are stored big-endian in {@code blockSize + 1} bytes, as for {@link BlockField}.
+ * @author Robin Kirkman
+ *
+ */
+abstract class DispersalField {
+	/**
+	 * Return the defining X coordinates of a stripe polynomial
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param modulus The prime
+	 * @return {@code -1, -2, ..., -requiredParts} modulo {@code modulus}
+	 */
+	static BigInteger[] definingXs(int requiredParts, BigInteger modulus) {
+		BigInteger[] xs = new BigInteger[requiredParts];
+		for(int i = 0; i < xs.length; i++)
+			xs[i] = modulus.subtract(BigInteger.valueOf(i + 1));
+		return xs;
+	}
+	
+	/**
+	 * Return the Lagrange weights for evaluating, at each of a set of X coordinates,
+	 * the polynomial through a set of points
+	 * @param from The X coordinates of the known points
+	 * @param to The X coordinates to evaluate at
+	 * @param modulus The prime
+	 * @return For each X coordinate in {@code to}, the weights of the points in {@code from}
+	 */
+	static BigInteger[][] weights(BigInteger[] from, BigInteger[] to, BigInteger modulus) {
+		BigInteger[][] w = new BigInteger[to.length][];
+		for(int i = 0; i < to.length; i++)
+			w[i] = ModularPolynomial.lagrangeWeights(from, to[i], modulus);
+		return w;
+	}
+	
+	/**
+	 * Return the length of each lane of a secret
+	 * @param length The length of the secret, in bytes
+	 * @param dataSymbols The number of lanes
+	 * @return The lane length, in bytes
+	 */
+	static int laneLength(int length, int dataSymbols) {
+		return (length + dataSymbols - 1) / dataSymbols;
+	}
+	
+	/**
+	 * Return the number of stripes of a secret
+	 * @param length The length of the secret, in bytes
+	 * @param dataSymbols The number of lanes
+	 * @param blockSize The block size, in bytes
+	 * @return The number of stripes
+	 */
+	static int stripes(int length, int dataSymbols, int blockSize) {
+		return BlockField.blocks(laneLength(length, dataSymbols), blockSize);
+	}
+	
+	/**
+	 * Split a range of stripes of a secret, writing the Y value of each
+	 * stripe into the buffer of each part.
+	 * @param secret The secret
+	 * @param blockSize The block size, in bytes
+	 * @param dataSymbols The number of lanes
+	 * @param from The index of the first stripe to split
+	 * @param to The index after the last stripe to split
+	 * @param weights For each part, the Lagrange weights of the defining X coordinates at the X coordinate of the part
+	 * @param modulus The prime for {@code blockSize}
+	 * @param rnd A source of random coefficients, unused if every defining value is a block of the secret
+	 * @param ys The Y value buffer of each part, parallel to {@code weights}
+	 * @param yoff The offset in each Y value buffer of the Y value for stripe zero
+	 */
+	static void split(byte[] secret, int blockSize, int dataSymbols, int from, int to, BigInteger[][] weights, BigInteger modulus, RandomCoefficients rnd, byte[][] ys, int yoff) {
+		int laneLength = laneLength(secret.length, dataSymbols);
+		BigInteger[] values = new BigInteger[weights[0].length];
+		for(int s = from; s < to; s++) {
+			for(int j = 0; j < dataSymbols; j++) {
+				int off = j * laneLength + s * blockSize;
+				int len = Math.min(Math.min(blockSize, laneLength - s * blockSize), secret.length - off);
+				values[j] = (len <= 0 ? BigInteger.ZERO : new BigInteger(1, Arrays.copyOfRange(secret, off, off + len)));
+			}
+			for(int j = dataSymbols; j < values.length; j++)
+				values[j] = rnd.nextBigInteger(modulus);
+			for(int i = 0; i < weights.length; i++) {
+				BigInteger y = BigInteger.ZERO;
+				for(int j = 0; j < values.length; j++)
+					y = y.add(weights[i][j].multiply(values[j]));
+				BlockField.put(y.mod(modulus), ys[i], yoff + s * (blockSize + 1), blockSize + 1);
+			}
+		}
+	}
+	
+	/**
+	 * Join a range of stripes of a secret from the Y values of the parts
+	 * @param ys The Y value buffer of each part
+	 * @param yoff The offset in each Y value buffer of the Y value for stripe zero
+	 * @param weights For each lane, the Lagrange weights of the parts at the defining X coordinate of the lane
+	 * @param modulus The prime for {@code blockSize}
+	 * @param blockSize The block size, in bytes
+	 * @param from The index of the first stripe to join
+	 * @param to The index after the last stripe to join
+	 * @param secret The buffer for the reconstructed secret
+	 */
+	static void join(byte[][] ys, int yoff, BigInteger[][] weights, BigInteger modulus, int blockSize, int from, int to, byte[] secret) {
+		int laneLength = laneLength(secret.length, weights.length);
+		BigInteger[] y = new BigInteger[ys.length];
+		byte[] b = new byte[blockSize + 1];
+		for(int s = from; s < to; s++) {
+			int pos = yoff + s * (blockSize + 1);
+			for(int i = 0; i < ys.length; i++) {
+				System.arraycopy(ys[i], pos, b, 0, b.length);
+				y[i] = new BigInteger(1, b);
+			}
+			for(int j = 0; j < weights.length; j++) {
+				int off = j * laneLength + s * blockSize;
+				int len = Math.min(Math.min(blockSize, laneLength - s * blockSize), secret.length - off);
+				if(len <= 0)
+					continue;
+				BigInteger v = BigInteger.ZERO;
+				for(int i = 0; i < y.length; i++)
+					v = v.add(weights[j][i].multiply(y[i]));
+				BlockField.put(v.mod(modulus), secret, off, len);
+			}
+		}
+	}
+	
+	private DispersalField() {}
+}
@@ -0,0 +1,118 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * A part of a secret dispersed so that each part is a fraction of the size of the secret.<p>
+ * 
+ * The secret is cut into {@link #getDataSymbols()} lanes of equal length, and each lane
+ * into blocks of {@link #getBlockSize()} bytes.  The blocks at the same position in every lane
+ * form a stripe, and the polynomial for a stripe takes the value of each of its blocks at the
+ * X coordinates {@code -1, -2, ...} modulo the prime {@link #getModulus()}.  The Y value of this
+ * part for every stripe is stored, big-endian and {@code blockSize + 1} bytes long, in the Y
+ * coordinate of this part, so a part is about {@code 1 / dataSymbols} of the size of the secret.
+ * {@link Secrets#splitPacked(byte[][], int, int, int, java.util.Random)} uses the same layout,
+ * with one secret of a batch in each lane.
+ * 
+ * @author Robin Kirkman
+ *
+ */
+public class DispersalPart extends Part {
+	/**
+	 * The number of secret bytes in each block
+	 */
+	private int blockSize;
+	
+	/**
+	 * The number of secret blocks in each stripe
+	 */
+	private int dataSymbols;
+	
+	/**
+	 * Create a {@link DispersalPart} to hold a dispersed secret part
+	 * @param version The version this part was formatted with
+	 * @param length The number of bytes in the secret
+	 * @param requiredParts How many parts are required to reconstruct the secret
+	 * @param modulus The prime modulus for each stripe
+	 * @param blockSize The number of secret bytes in each block
+	 * @param dataSymbols The number of secret blocks in each stripe
+	 * @param point The {@link BigPoint} representing this secret part
+	 */
+	public DispersalPart(int version, int length, int requiredParts, BigInteger modulus, int blockSize, int dataSymbols, BigPoint point) {
+		super(version, length, requiredParts, modulus, point);
+		InputValidation.begin()
+			.when(blockSize < 1, "blockSize is less than 1")
+			.when(modulus.bitLength() <= 8 * blockSize, "modulus is too small for blockSize")
+			.when(modulus.bitLength() > 8 * (blockSize + 1), "modulus is too large for blockSize")
+			.when(dataSymbols < 1, "dataSymbols is less than 1")
+			.when(dataSymbols > requiredParts, "dataSymbols is greater than requiredParts")
+			.validate();
+		this.blockSize = blockSize;
+		this.dataSymbols = dataSymbols;
+	}
+	
+	/**
+	 * Return the number of secret bytes in each block
+	 * @return The block size
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+	
+	/**
+	 * Return the number of secret blocks in each stripe
+	 * @return The number of data symbols
+	 */
+	public int getDataSymbols() {
+		return dataSymbols;
+	}
+
+	/**
+	 * Return the number of parts that are guaranteed to reveal nothing about the secret,
+	 * which is the number of random values defining each stripe
+	 * @return The privacy threshold
+	 */
+	public int getPrivacyThreshold() {
+		return getRequiredParts() - dataSymbols;
+	}
+
+	@Override
+	public byte[] join(Part... otherParts) {
+		InputValidation iv = InputValidation.begin()
+			.when(otherParts == null, "otherParts is null")
+			.validate();
+		DispersalPart[] parts = new DispersalPart[otherParts.length + 1];
+		parts[0] = this;
+		for(int i = 0; i < otherParts.length; i++) {
+			iv
+				.when(!(otherParts[i] instanceof DispersalPart), "cannot apply dispersal join to other parts")
+				.validate();
+			parts[i+1] = (DispersalPart) otherParts[i];
+		}
+		return Secrets.joinDispersal(parts);
+	}
+}
@@ -0,0 +1,151 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.mitre.secretsharing.util.InputValidation;
+import org.mitre.secretsharing.util.InputValidationException;
+
+/**
+ * A secret encrypted once with AES-GCM under a random 256-bit key, together with the
+ * {@link GF256Part}s the key was split into.  The ciphertext is stored once and shared
+ * by every holder; each holder keeps only their key part, which is {@link #KEY_BYTES} bytes
+ * of Y value regardless of the size of the secret.<p>
+ * 
+ * The ciphertext is the {@link #NONCE_BYTES} byte nonce followed by the AES-GCM
+ * output, which includes the authentication tag.
+ * @author Robin Kirkman
+ * @see Secrets#splitEncrypted(byte[], int, int, java.util.Random)
+ * @see Secrets#joinEncrypted(byte[], GF256Part[])
+ */
+public class EncryptedSecret {
+	/**
+	 * The length of the AES key, in bytes
+	 */
+	public static final int KEY_BYTES = 32;
+	/**
+	 * The length of the AES-GCM nonce, in bytes
+	 */
+	public static final int NONCE_BYTES = 12;
+	/**
+	 * The length of the AES-GCM authentication tag, in bits
+	 */
+	public static final int TAG_BITS = 128;
+	
+	/**
+	 * The nonce and AES-GCM output
+	 */
+	private byte[] ciphertext;
+	/**
+	 * The parts of the key
+	 */
+	private GF256Part[] keyParts;
+	
+	/**
+	 * Create a new {@link EncryptedSecret}
+	 * @param ciphertext The nonce and AES-GCM output
+	 * @param keyParts The parts of the key
+	 */
+	public EncryptedSecret(byte[] ciphertext, GF256Part[] keyParts) {
+		InputValidation.begin()
+			.when(ciphertext == null, "ciphertext is null")
+			.when(keyParts == null, "keyParts is null")
+			.validate();
+		this.ciphertext = ciphertext;
+		this.keyParts = keyParts;
+	}
+	
+	/**
+	 * Return the nonce and AES-GCM output, shared by every holder
+	 * @return The ciphertext
+	 */
+	public byte[] getCiphertext() {
+		return ciphertext;
+	}
+	
+	/**
+	 * Return the parts of the key, one per holder
+	 * @return The key parts
+	 */
+	public GF256Part[] getKeyParts() {
+		return keyParts;
+	}
+	
+	/**
+	 * Recover the secret using the key parts
+	 * @return The secret
+	 */
+	public byte[] join() {
+		return Secrets.joinEncrypted(ciphertext, keyParts);
+	}
+	
+	/**
+	 * Encrypt a secret with AES-GCM
+	 * @param key The key
+	 * @param nonce The nonce, never reused with the same key
+	 * @param secret The secret
+	 * @return The nonce followed by the AES-GCM output
+	 */
+	static byte[] encrypt(byte[] key, byte[] nonce, byte[] secret) {
+		try {
+			Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+			c.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_BITS, nonce));
+			byte[] ciphertext = new byte[nonce.length + c.getOutputSize(secret.length)];
+			System.arraycopy(nonce, 0, ciphertext, 0, nonce.length);
+			c.doFinal(secret, 0, secret.length, ciphertext, nonce.length);
+			return ciphertext;
+		} catch(GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	/**
+	 * Decrypt and authenticate a secret encrypted by {@link #encrypt(byte[], byte[], byte[])}
+	 * @param key The key
+	 * @param ciphertext The nonce followed by the AES-GCM output
+	 * @return The secret
+	 */
+	static byte[] decrypt(byte[] key, byte[] ciphertext) {
+		InputValidation.begin()
+			.when(ciphertext.length < NONCE_BYTES + TAG_BITS / 8, "ciphertext is too short")
+			.validate();
+		try {
+			Cipher c = Cipher.getInstance("AES/GCM/NoPadding");
+			c.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_BITS, Arrays.copyOf(ciphertext, NONCE_BYTES)));
+			return c.doFinal(ciphertext, NONCE_BYTES, ciphertext.length - NONCE_BYTES);
+		} catch(AEADBadTagException e) {
+			throw new InputValidationException(Collections.singleton(
+					new IllegalArgumentException("key parts do not authenticate the ciphertext", e)));
+		} catch(GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,279 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Table-driven arithmetic in the finite field GF(2^8), using the reduction
+ * polynomial {@code x^8 + x^4 + x^3 + x + 1} ({@code 0x11B}) and the generator {@code 0x03}.
+ * Used by {@link Secrets} to split and join {@link GF256Part}s, where each
+ * secret byte is shared as exactly one byte per part.<p>
+ * 
+ * Addition and subtraction are both exclusive-or; multiplication and division
+ * are a lookup in the logarithm and exponent tables.
+ * @author Robin Kirkman
+ *
+ */
+abstract class GF256 {
+	/**
+	 * The reduction polynomial of the field
+	 */
+	static final int POLYNOMIAL = 0x11B;
+	
+	/**
+	 * {@code EXP[i]} is the generator raised to the {@code i}th power.  The table is
+	 * doubled so that the sum of two logarithms can be looked up without reduction.
+	 */
+	static final int[] EXP = new int[510];
+	
+	/**
+	 * {@code LOG[a]} is the discrete logarithm of {@code a}, for {@code a != 0}
+	 */
+	static final int[] LOG = new int[256];
+	
+	static {
+		int a = 1;
+		for(int i = 0; i < 255; i++) {
+			EXP[i] = a;
+			EXP[i + 255] = a;
+			LOG[a] = i;
+			// multiply by the generator, x + 1
+			a ^= (a << 1);
+			if((a & 0x100) != 0)
+				a ^= POLYNOMIAL;
+		}
+	}
+	
+	/**
+	 * Multiply two field elements
+	 * @param a The first element
+	 * @param b The second element
+	 * @return The product
+	 */
+	static int mul(int a, int b) {
+		if(a == 0 || b == 0)
+			return 0;
+		return EXP[LOG[a] + LOG[b]];
+	}
+	
+	/**
+	 * Divide two field elements
+	 * @param a The dividend
+	 * @param b The divisor, which must not be zero
+	 * @return The quotient
+	 */
+	static int div(int a, int b) {
+		if(b == 0)
+			throw new ArithmeticException("division by zero");
+		if(a == 0)
+			return 0;
+		return EXP[LOG[a] + 255 - LOG[b]];
+	}
+	
+	/**
+	 * Choose distinct random X coordinates in {@code [1, 255]} for a number of parts
+	 * @param totalParts The number of parts, at most {@link GF256Part#MAX_PARTS}
+	 * @param rnd A source of random
+	 * @return The X coordinate of each part
+	 */
+	static int[] xs(int totalParts, Random rnd) {
+		int[] xs = new int[GF256Part.MAX_PARTS];
+		for(int i = 0; i < xs.length; i++)
+			xs[i] = i + 1;
+		int[] x = new int[totalParts];
+		for(int j = 0; j < x.length; j++) {
+			int r = j + rnd.nextInt(xs.length - j);
+			x[j] = xs[r];
+			xs[r] = xs[j];
+		}
+		return x;
+	}
+	
+	/**
+	 * Split a range of secret bytes, writing the one-byte Y value of each
+	 * secret byte into the buffer of each part.
+	 * @param secret The secret
+	 * @param off The offset of the first secret byte to split
+	 * @param len The number of secret bytes to split
+	 * @param xs The X coordinate of each part, distinct and in {@code [1, 255]}
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @param ys The Y value buffer of each part, parallel to {@code xs}
+	 * @param yoff The offset in each Y value buffer of the Y value for {@code secret[off]}
+	 */
+	static void split(byte[] secret, int off, int len, int[] xs, int requiredParts, RandomCoefficients rnd, byte[][] ys, int yoff) {
+		byte[] coefficients = new byte[Math.max(requiredParts, 1)];
+		int[] logx = new int[xs.length];
+		for(int j = 0; j < xs.length; j++)
+			logx[j] = LOG[xs[j]];
+		for(int i = 0; i < len; i++) {
+			rnd.nextBytes(coefficients, 1, coefficients.length - 1);
+			coefficients[0] = secret[off + i];
+			for(int j = 0; j < xs.length; j++) {
+				int y = 0;
+				for(int c = coefficients.length - 1; c >= 0; c--) {
+					if(y != 0)
+						y = EXP[LOG[y] + logx[j]];
+					y ^= 0xFF & coefficients[c];
+				}
+				ys[j][yoff + i] = (byte) y;
+			}
+		}
+	}
+	
+	/**
+	 * Join a range of secret bytes from the one-byte Y values of the parts, using
+	 * Lagrange weights previously computed by {@link #lagrangeWeights(int[], int)}
+	 * @param ys The Y value buffer of each part, parallel to {@code weights}
+	 * @param yoff The offset in each Y value buffer of the Y value for {@code secret[off]}
+	 * @param weights The Lagrange weights at zero for the X coordinates of the parts
+	 * @param secret The buffer for the reconstructed secret
+	 * @param off The offset of the first secret byte to reconstruct
+	 * @param len The number of secret bytes to reconstruct
+	 */
+	static void join(byte[][] ys, int yoff, int[] weights, byte[] secret, int off, int len) {
+		int[] logw = new int[weights.length];
+		for(int j = 0; j < weights.length; j++)
+			logw[j] = (weights[j] == 0 ? -1 : LOG[weights[j]]);
+		for(int i = 0; i < len; i++) {
+			int s = 0;
+			for(int j = 0; j < weights.length; j++) {
+				int y = 0xFF & ys[j][yoff + i];
+				if(y != 0 && logw[j] >= 0)
+					s ^= EXP[LOG[y] + logw[j]];
+			}
+			secret[off + i] = (byte) s;
+		}
+	}
+	
+	/**
+	 * Split a secret again from the Y values of its parts, recovering and splitting
+	 * {@code chunkSize} secret bytes at a time so that the secret is never held whole
+	 * @param ys The Y value buffer of each old part, parallel to {@code weights}
+	 * @param weights The Lagrange weights at zero of the old parts
+	 * @param len The number of secret bytes
+	 * @param chunkSize The number of secret bytes to recover at a time
+	 * @param xs The X coordinate of each new part
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @param fresh The Y value buffer of each new part, parallel to {@code xs}
+	 * @param yoff The offset in each new Y value buffer of the Y value for the first secret byte
+	 */
+	static void reshare(byte[][] ys, int[] weights, int len, int chunkSize, int[] xs, int requiredParts, RandomCoefficients rnd, byte[][] fresh, int yoff) {
+		byte[] chunk = new byte[Math.min(len, chunkSize)];
+		for(int off = 0; off < len; off += chunk.length) {
+			int n = Math.min(chunk.length, len - off);
+			join(ys, off, weights, chunk, 0, n);
+			split(chunk, 0, n, xs, requiredParts, rnd, fresh, yoff + off);
+		}
+		Arrays.fill(chunk, (byte) 0);
+	}
+	
+	/**
+	 * Compute the Lagrange basis weights for a set of X coordinates, evaluated at {@code x}
+	 * @param xs The X coordinates, distinct and in {@code [0, 255]}
+	 * @param x The X coordinate to evaluate at, in {@code [0, 255]}
+	 * @return The weights, or {@code null} if the X coordinates are not distinct
+	 */
+	static int[] lagrangeWeights(int[] xs, int x) {
+		int[] weights = new int[xs.length];
+		for(int j = 0; j < xs.length; j++) {
+			int w = 1;
+			for(int i = 0; i < xs.length; i++) {
+				if(i == j)
+					continue;
+				if(xs[i] == xs[j])
+					return null;
+				w = div(mul(w, x ^ xs[i]), xs[j] ^ xs[i]);
+			}
+			weights[j] = w;
+		}
+		return weights;
+	}
+	
+	/**
+	 * Compute the Lagrange basis weights for a set of X coordinates, evaluated at each of
+	 * several X coordinates.  The denominators are computed once, so each further X coordinate
+	 * costs {@code O(n)} multiplications.
+	 * @param xs The X coordinates, distinct and in {@code [0, 255]}
+	 * @param at The X coordinates to evaluate at, in {@code [0, 255]}
+	 * @return The weights for each of {@code at}, or {@code null} if the X coordinates are not distinct
+	 */
+	static int[][] lagrangeWeights(int[] xs, int[] at) {
+		int n = xs.length;
+		int[] den = new int[n];
+		for(int j = 0; j < n; j++) {
+			int d = 1;
+			for(int i = 0; i < n; i++) {
+				if(i != j)
+					d = mul(d, xs[j] ^ xs[i]);
+			}
+			if(d == 0)
+				return null;
+			den[j] = d;
+		}
+		int[][] weights = new int[at.length][n];
+		int[] num = new int[n];
+		for(int t = 0; t < at.length; t++) {
+			int acc = 1;
+			for(int j = 0; j < n; j++) {
+				num[j] = acc;
+				acc = mul(acc, at[t] ^ xs[j]);
+			}
+			acc = 1;
+			for(int j = n - 1; j >= 0; j--) {
+				weights[t][j] = div(mul(num[j], acc), den[j]);
+				acc = mul(acc, at[t] ^ xs[j]);
+			}
+		}
+		return weights;
+	}
+	
+	/**
+	 * Check which of several parts lie on the polynomials through a set of parts, one polynomial
+	 * per secret byte.  The Y values of the set are read once per secret byte for every part checked.
+	 * @param ys The Y value buffer of each part in the set
+	 * @param weights The Lagrange weights of the set at the X coordinate of each part checked,
+	 * from {@link #lagrangeWeights(int[], int[])}
+	 * @param checks The Y value buffer of each part checked, parallel to {@code weights}
+	 * @param bad Set to {@code true} for each part checked that does not lie on the polynomials
+	 * @param len The number of secret bytes
+	 */
+	static void verify(byte[][] ys, int[][] weights, byte[][] checks, boolean[] bad, int len) {
+		for(int i = 0; i < len; i++) {
+			for(int e = 0; e < checks.length; e++) {
+				if(bad[e])
+					continue;
+				int s = 0;
+				for(int j = 0; j < ys.length; j++)
+					s ^= mul(weights[e][j], 0xFF & ys[j][i]);
+				bad[e] = (s != (0xFF & checks[e][i]));
+			}
+		}
+	}
+	
+	private GF256() {}
+}
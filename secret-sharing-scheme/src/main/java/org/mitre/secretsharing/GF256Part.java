@@ -0,0 +1,76 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * A part of a shared secret that was split into individual bytes over the
+ * finite field GF(2^8).<p>
+ * 
+ * Like {@link PerBytePart}, a single X coordinate is used for every byte of the
+ * secret, but each Y coordinate is a single byte instead of two, so each part
+ * is the same size as the secret.
+ * 
+ * @author Robin Kirkman
+ *
+ */
+public class GF256Part extends Part {
+	/**
+	 * The reduction polynomial of GF(2^8), {@code x^8 + x^4 + x^3 + x + 1}.
+	 * This is not a prime; it is reported by {@link #getModulus()} only
+	 * to identify the field.
+	 */
+	public static final BigInteger MODULUS = BigInteger.valueOf(GF256.POLYNOMIAL);
+	public static final int MAX_PARTS = 255;
+
+	/**
+	 * Create a {@link GF256Part} to hold a GF(2^8) secret part
+	 * @param version The version this part was formatted with
+	 * @param length The number of bytes in the secret
+	 * @param requiredParts How many parts are required to reconstruct the secret
+	 * @param point The {@link BigPoint} representing this secret part
+	 */
+	public GF256Part(int version, int length, int requiredParts, BigPoint point) {
+		super(version, length, requiredParts, MODULUS, point);
+	}
+
+	@Override
+	public byte[] join(Part... otherParts) {
+		InputValidation iv = InputValidation.begin()
+			.when(otherParts == null, "otherParts is null")
+			.validate();
+		GF256Part[] parts = new GF256Part[otherParts.length + 1];
+		parts[0] = this;
+		for(int i = 0; i < otherParts.length; i++) {
+			iv
+				.when(!(otherParts[i] instanceof GF256Part), "cannot apply GF(256) join to other parts")
+				.validate();
+			parts[i+1] = (GF256Part) otherParts[i];
+		}
+		return Secrets.joinGF256(parts);
+	}
+}
@@ -0,0 +1,265 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.mitre.secretsharing.Part.PublicSecretPart;
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * Accumulates the {@link Part}s of a secret as they arrive, one at a time, and recovers
+ * the secret as soon as enough distinct parts are present.  Each part is checked against
+ * the parts already seen when it is added, so an inconsistent part is rejected on arrival
+ * rather than spoiling a later join.<p>
+ * 
+ * Every byte, block or symbol of a secret shares the X coordinates of its parts, so the
+ * interpolation state kept between arrivals is the product of the differences between the
+ * X coordinate of each part and the others, updated in {@code O(k)} per part.  When the
+ * last required part arrives only the final weights and the weighted sum of the Y values
+ * remain to be computed.  Parts beyond the required number are checked and then ignored.<p>
+ * 
+ * A {@link JoinAccumulator} is not thread-safe.
+ * @author Robin Kirkman
+ *
+ */
+public class JoinAccumulator {
+	/**
+	 * The first part added, which the others must agree with
+	 */
+	private Part first;
+	/**
+	 * The distinct parts, up to the number of required parts
+	 */
+	private Part[] parts;
+	/**
+	 * The X coordinate of each part in {@link #parts}, reduced into its field
+	 */
+	private BigInteger[] x;
+	/**
+	 * For prime fields, the product of {@code x[i] - x[j]} over every other part {@code j}
+	 */
+	private BigInteger[] denominators;
+	/**
+	 * For GF(2^8), the product of {@code x[i] ^ x[j]} over every other part {@code j}
+	 */
+	private int[] gfDenominators;
+	/**
+	 * The number of distinct parts in {@link #parts}
+	 */
+	private int count;
+	/**
+	 * The recovered secret, once computed
+	 */
+	private byte[] secret;
+	
+	/**
+	 * Add a part of the secret.  A part with the same X coordinate and Y value as a part
+	 * already added, or any part once the secret can be recovered, is checked and then ignored.
+	 * @param part The part to add
+	 * @return {@code true} if the part was one of the distinct parts needed to recover the secret
+	 * @throws IllegalArgumentException if the part is not a part of the same secret as the parts already added,
+	 * or has the same X coordinate as a part already added but a different Y value
+	 */
+	public boolean add(Part part) {
+		InputValidation.begin().when(part == null, "part is null").validate();
+		if(first != null)
+			check(part);
+		BigInteger px = reduce(first != null ? first : part, part.getPoint().getX());
+		if(first == null)
+			start(part);
+		
+		for(int i = 0; i < count; i++) {
+			if(x[i].equals(px)) {
+				InputValidation.begin()
+					.when(!parts[i].getPoint().getY().equals(part.getPoint().getY()), "conflicting parts for X coordinate " + px)
+					.validate();
+				return false;
+			}
+		}
+		if(isReady())
+			return false;
+		
+		if(gfDenominators != null) {
+			int gx = px.intValue();
+			int d = 1;
+			for(int i = 0; i < count; i++) {
+				int diff = x[i].intValue() ^ gx;
+				gfDenominators[i] = GF256.mul(gfDenominators[i], diff);
+				d = GF256.mul(d, diff);
+			}
+			gfDenominators[count] = d;
+		} else if(denominators != null) {
+			BigInteger modulus = first.getModulus();
+			BigInteger d = BigInteger.ONE;
+			for(int i = 0; i < count; i++) {
+				BigInteger diff = x[i].subtract(px);
+				denominators[i] = denominators[i].multiply(diff).mod(modulus);
+				d = d.multiply(diff.negate()).mod(modulus);
+			}
+			denominators[count] = d;
+		}
+		parts[count] = part;
+		x[count] = px;
+		count++;
+		return true;
+	}
+	
+	/**
+	 * Returns whether enough distinct parts have been added to recover the secret
+	 * @return {@code true} if {@link #getSecret()} will succeed
+	 */
+	public boolean isReady() {
+		return first != null && count == first.getRequiredParts();
+	}
+	
+	/**
+	 * Returns the number of distinct parts kept to recover the secret
+	 * @return The number of distinct parts, at most the number of required parts
+	 */
+	public int getPartCount() {
+		return count;
+	}
+	
+	/**
+	 * Returns the public part shared by every part added
+	 * @return The public part, or {@code null} if no part has been added
+	 */
+	public PublicSecretPart getPublicPart() {
+		return first == null ? null : first.getPublicPart();
+	}
+	
+	/**
+	 * Recover the secret from the distinct parts added
+	 * @return The recovered secret
+	 * @throws IllegalArgumentException if not enough distinct parts have been added
+	 */
+	public byte[] getSecret() {
+		InputValidation.begin().when(first == null, "no parts added").validate();
+		InputValidation.begin()
+			.when(!isReady(), first.getRequiredParts() + " parts required but " + count + " parts provided")
+			.validate();
+		if(secret == null) {
+			if(first instanceof DispersalPart)
+				secret = Secrets.joinDispersal(Arrays.copyOf(parts, count, DispersalPart[].class));
+			else
+				secret = Secrets.groupJoin(parts, weights(), new byte[count][]);
+		}
+		return secret.clone();
+	}
+	
+	/**
+	 * Start accumulating with the first part
+	 * @param part The first part
+	 */
+	private void start(Part part) {
+		first = part;
+		int k = part.getRequiredParts();
+		parts = new Part[k];
+		x = new BigInteger[k];
+		if(part instanceof GF256Part)
+			gfDenominators = new int[k];
+		else if(!(part instanceof DispersalPart))
+			denominators = new BigInteger[k];
+	}
+	
+	/**
+	 * Check that a part is a part of the same secret as the first part
+	 * @param part The part
+	 */
+	private void check(Part part) {
+		InputValidation iv = InputValidation.begin()
+			.when(part.getClass() != first.getClass(), "inconsistent kinds of parts")
+			.when(part.getLength() != first.getLength(), "inconsistent secret lengths")
+			.when(part.getRequiredParts() != first.getRequiredParts(), "inconsistent number of required parts")
+			.when(!part.getModulus().equals(first.getModulus()), "inconsistent moduli");
+		if(part instanceof BlockPart)
+			iv.when(((BlockPart) part).getBlockSize() != ((BlockPart) first).getBlockSize(), "inconsistent block sizes");
+		if(part instanceof DispersalPart) {
+			iv.when(((DispersalPart) part).getBlockSize() != ((DispersalPart) first).getBlockSize(), "inconsistent block sizes");
+			iv.when(((DispersalPart) part).getDataSymbols() != ((DispersalPart) first).getDataSymbols(), "inconsistent data symbols");
+		}
+		iv.validate();
+	}
+	
+	/**
+	 * Reduce an X coordinate into the field of the parts, checking that it is usable.
+	 * Called before a first part is kept, so that a part with an unusable X coordinate
+	 * never becomes the part later parts are checked against.
+	 * @param template The first part, or the part being added if there is none yet
+	 * @param px The X coordinate
+	 * @return The reduced X coordinate
+	 */
+	private static BigInteger reduce(Part template, BigInteger px) {
+		if(template instanceof GF256Part) {
+			InputValidation.begin().when(px.signum() <= 0 || px.bitLength() > 8, "X coordinate out of range").validate();
+			return px;
+		}
+		BigInteger x = px.mod(template.getModulus());
+		if(template instanceof DispersalPart) {
+			// parts lie strictly between zero and the defining points -requiredParts .. -1
+			BigInteger defining = template.getModulus().subtract(BigInteger.valueOf(template.getRequiredParts()));
+			InputValidation.begin().when(!x.equals(px) || x.signum() == 0 || x.compareTo(defining) >= 0, "X coordinate out of range").validate();
+		}
+		return x;
+	}
+	
+	/**
+	 * Compute the Lagrange weights at zero of the distinct parts from the
+	 * accumulated denominators
+	 * @return The weights, as {@code int[]} for per-byte and GF(2^8) parts and {@code BigInteger[]} otherwise
+	 */
+	private Object weights() {
+		if(gfDenominators != null) {
+			int[] w = new int[count];
+			for(int i = 0; i < count; i++) {
+				int n = 1;
+				for(int j = 0; j < count; j++) {
+					if(j != i)
+						n = GF256.mul(n, x[j].intValue());
+				}
+				w[i] = GF256.div(n, gfDenominators[i]);
+			}
+			return w;
+		}
+		BigInteger modulus = first.getModulus();
+		BigInteger[] w = new BigInteger[count];
+		BigInteger[] suffix = new BigInteger[count + 1];
+		suffix[count] = BigInteger.ONE;
+		for(int j = count - 1; j >= 0; j--)
+			suffix[j] = suffix[j + 1].multiply(x[j].negate()).mod(modulus);
+		BigInteger prefix = BigInteger.ONE;
+		for(int i = 0; i < count; i++) {
+			w[i] = prefix.multiply(suffix[i + 1]).multiply(denominators[i].modInverse(modulus)).mod(modulus);
+			prefix = prefix.multiply(x[i].negate()).mod(modulus);
+		}
+		if(!(first instanceof PerBytePart))
+			return w;
+		int[] iw = new int[count];
+		for(int i = 0; i < count; i++)
+			iw[i] = w[i].intValue();
+		return iw;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * Reusable joiner of secrets.  A {@link Joiner} keeps the buffers it unpacks the Y values
+ * of parts into between secrets, so joining many small secrets does not allocate much more
+ * than the secrets themselves, and into a caller-supplied buffer not even that.<p>
+ * 
+ * The secrets are the same as those returned by {@link Secrets#join(Part[])}.  Parts carry
+ * their own scheme and thresholds, so a {@link Joiner} needs no configuration.  A {@link Joiner}
+ * is not thread-safe; keep one per thread, such as one per servlet worker.
+ * @author Robin Kirkman
+ *
+ */
+public class Joiner {
+	/**
+	 * Reusable buffers for the Y values of the parts
+	 */
+	private byte[][] ys = new byte[0][];
+	
+	/**
+	 * Reusable buffer for secrets joined into a buffer without an accessible array
+	 */
+	private byte[] scratch = new byte[0];
+	
+	/**
+	 * Join {@link Part}s of a secret
+	 * @param parts The array of parts to join, of length at least one
+	 * @return The reconstructed secret
+	 */
+	public byte[] join(Part[] parts) {
+		byte[] secret = new byte[length(parts)];
+		Secrets.join(parts, secret, 0, ys(parts.length));
+		return secret;
+	}
+	
+	/**
+	 * Join {@link Part}s of a secret into a buffer
+	 * @param parts The array of parts to join, of length at least one
+	 * @param secret The buffer for the reconstructed secret
+	 * @param off The offset in {@code secret} to write the reconstructed secret at
+	 * @return The length of the reconstructed secret
+	 */
+	public int join(Part[] parts, byte[] secret, int off) {
+		length(parts);
+		return Secrets.join(parts, secret, off, ys(parts.length));
+	}
+	
+	/**
+	 * Join {@link Part}s of a secret into a buffer, starting at its position.
+	 * On return the position of {@code secret} is after the reconstructed secret.
+	 * A buffer without an accessible array, such as a direct buffer, is filled from
+	 * a scratch array kept between secrets, which is cleared once it is copied.
+	 * @param parts The array of parts to join, of length at least one
+	 * @param secret The buffer for the reconstructed secret
+	 * @return The length of the reconstructed secret
+	 */
+	public int join(Part[] parts, ByteBuffer secret) {
+		int length = length(parts);
+		InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.validate()
+			.when(secret.remaining() < length, "secret buffer is too small")
+			.validate();
+		if(secret.hasArray()) {
+			Secrets.join(parts, secret.array(), secret.arrayOffset() + secret.position(), ys(parts.length));
+			secret.position(secret.position() + length);
+		} else {
+			if(scratch.length < length)
+				scratch = new byte[length];
+			Secrets.join(parts, scratch, 0, ys(parts.length));
+			secret.put(scratch, 0, length);
+			Arrays.fill(scratch, 0, length, (byte) 0);
+		}
+		return length;
+	}
+	
+	/**
+	 * Return the reusable Y buffers, growing the array to hold at least {@code count} buffers
+	 * @param count The number of parts
+	 * @return The Y buffers
+	 */
+	private byte[][] ys(int count) {
+		if(ys.length < count)
+			ys = Arrays.copyOf(ys, count);
+		return ys;
+	}
+	
+	/**
+	 * Return the length of the secret of an array of parts, checking that the array is not empty
+	 * @param parts The parts
+	 * @return The length of the secret of the first part
+	 */
+	private static int length(Part[] parts) {
+		InputValidation.begin()
+			.when(parts == null, "parts array is null")
+			.when(parts != null && parts.length == 0, "parts array is empty")
+			.when(parts != null && parts.length > 0 && parts[0] == null, "parts array contains null")
+			.validate();
+		return parts[0].getLength();
+	}
+}
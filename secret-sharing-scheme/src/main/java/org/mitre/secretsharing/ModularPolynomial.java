@@ -0,0 +1,468 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * A polynomial over the integers modulo a prime.  Unlike {@link TermPolynomial},
+ * whose coefficients are fractions, every coefficient of a {@link ModularPolynomial}
+ * is a residue in {@code [0, modulus)}, and division is performed by multiplying
+ * with a modular inverse.
+ * @author Robin Kirkman
+ *
+ */
+public class ModularPolynomial {
+	/**
+	 * Compute a Lagrange polynomial from an array of points, modulo a prime
+	 * @param pts Array of points found on the interpolating Lagrange polynomial, with X coordinates distinct modulo {@code modulus}
+	 * @param modulus The prime modulus of the polynomial
+	 * @return A new {@link ModularPolynomial}
+	 */
+	public static ModularPolynomial lagrangePolynomial(BigPoint[] pts, BigInteger modulus) {
+		InputValidation iv = InputValidation.begin()
+			.when(pts == null, "pts is null")
+			.when(modulus == null, "modulus is null")
+			.when(modulus != null && modulus.compareTo(BigInteger.ONE) <= 0, "modulus not greater than one")
+			.validate();
+		int n = pts.length;
+		BigInteger[] px = new BigInteger[n];
+		for(int i = 0; i < n; i++) {
+			iv.when(pts[i] == null, "pts contains null").validate();
+			px[i] = pts[i].getX().mod(modulus);
+		}
+
+		// m(x) = (x - x0)(x - x1)...(x - xn-1)
+		BigInteger[] m = new BigInteger[n + 1];
+		Arrays.fill(m, BigInteger.ZERO);
+		m[0] = BigInteger.ONE;
+		for(int i = 0; i < n; i++) {
+			for(int j = i + 1; j > 0; j--)
+				m[j] = m[j-1].subtract(px[i].multiply(m[j])).mod(modulus);
+			m[0] = px[i].negate().multiply(m[0]).mod(modulus);
+		}
+
+		BigInteger[] coefficients = new BigInteger[Math.max(n, 1)];
+		Arrays.fill(coefficients, BigInteger.ZERO);
+		BigInteger[] q = new BigInteger[n];
+		for(int j = 0; j < n; j++) {
+			// q(x) = m(x) / (x - xj), by synthetic division
+			BigInteger r = BigInteger.ZERO;
+			for(int i = n; i > 0; i--) {
+				r = m[i].add(r.multiply(px[j])).mod(modulus);
+				q[i-1] = r;
+			}
+			BigInteger d = BigInteger.ONE;
+			for(int i = 0; i < n; i++) {
+				if(i != j)
+					d = d.multiply(px[j].subtract(px[i])).mod(modulus);
+			}
+			iv.when(d.signum() == 0, "duplicate X coordinates").validate();
+			BigInteger w = pts[j].getY().multiply(d.modInverse(modulus)).mod(modulus);
+			for(int i = 0; i < n; i++)
+				coefficients[i] = coefficients[i].add(q[i].multiply(w));
+		}
+		return new ModularPolynomial(coefficients, modulus);
+	}
+
+	/**
+	 * Compute the Lagrange basis weights for a set of X coordinates, evaluated at {@code x}.
+	 * For any polynomial of degree less than {@code px.length} passing through the points
+	 * {@code (px[i], y[i])}, the value at {@code x} is the sum of {@code weights[i] * y[i]}
+	 * modulo {@code modulus}.  Uses {@code O(n^2)} modular multiplications and a single
+	 * modular inversion.
+	 * @param px The X coordinates of the points, which must be distinct modulo {@code modulus}
+	 * @param x The X coordinate at which to evaluate the basis polynomials
+	 * @param modulus The prime modulus
+	 * @return The weights, in {@code [0, modulus)}
+	 */
+	public static BigInteger[] lagrangeWeights(BigInteger[] px, BigInteger x, BigInteger modulus) {
+		InputValidation.begin().when(x == null, "x is null").validate();
+		return lagrangeWeights(px, new BigInteger[] {x}, modulus)[0];
+	}
+	
+	/**
+	 * Compute the Lagrange basis weights for a set of X coordinates, evaluated at each of
+	 * several X coordinates.  The denominators of the weights depend only on {@code px}, so
+	 * they are computed and inverted once, and each further X coordinate costs {@code O(n)}
+	 * modular multiplications.
+	 * @param px The X coordinates of the points, which must be distinct modulo {@code modulus}
+	 * @param x The X coordinates at which to evaluate the basis polynomials
+	 * @param modulus The prime modulus
+	 * @return The weights for each of {@code x}, in {@code [0, modulus)}
+	 * @see #lagrangeWeights(BigInteger[], BigInteger, BigInteger)
+	 */
+	public static BigInteger[][] lagrangeWeights(BigInteger[] px, BigInteger[] x, BigInteger modulus) {
+		InputValidation iv = InputValidation.begin()
+			.when(px == null, "px is null")
+			.when(x == null, "x is null")
+			.when(modulus == null, "modulus is null")
+			.when(modulus != null && modulus.compareTo(BigInteger.ONE) <= 0, "modulus not greater than one")
+			.validate();
+		int n = px.length;
+		BigInteger[] xs = new BigInteger[n];
+		for(int i = 0; i < n; i++) {
+			iv.when(px[i] == null, "X coordinate is null").validate();
+			xs[i] = px[i].mod(modulus);
+		}
+
+		// denominators: product of (xj - xi) for i != j
+		BigInteger[] den = new BigInteger[n];
+		for(int j = 0; j < n; j++) {
+			BigInteger d = BigInteger.ONE;
+			for(int i = 0; i < n; i++) {
+				if(i != j)
+					d = d.multiply(xs[j].subtract(xs[i])).mod(modulus);
+			}
+			iv.when(d.signum() == 0, "duplicate X coordinates");
+			den[j] = d;
+		}
+		iv.validate();
+
+		// invert every denominator with a single modInverse
+		BigInteger[] prefix = new BigInteger[n];
+		BigInteger acc = BigInteger.ONE;
+		for(int j = 0; j < n; j++) {
+			prefix[j] = acc;
+			acc = acc.multiply(den[j]).mod(modulus);
+		}
+		BigInteger inv = acc.modInverse(modulus);
+		BigInteger[] invDen = new BigInteger[n];
+		for(int j = n - 1; j >= 0; j--) {
+			invDen[j] = inv.multiply(prefix[j]).mod(modulus);
+			inv = inv.multiply(den[j]).mod(modulus);
+		}
+
+		BigInteger[][] weights = new BigInteger[x.length][n];
+		for(int t = 0; t < x.length; t++) {
+			iv.when(x[t] == null, "x is null").validate();
+			BigInteger x0 = x[t].mod(modulus);
+			// numerators: product of (x - xi) for i != j, from prefix and suffix products
+			BigInteger[] w = weights[t];
+			acc = BigInteger.ONE;
+			for(int j = 0; j < n; j++) {
+				w[j] = acc;
+				acc = acc.multiply(x0.subtract(xs[j])).mod(modulus);
+			}
+			acc = BigInteger.ONE;
+			for(int j = n - 1; j >= 0; j--) {
+				w[j] = w[j].multiply(acc).multiply(invDen[j]).mod(modulus);
+				acc = acc.multiply(x0.subtract(xs[j])).mod(modulus);
+			}
+		}
+		return weights;
+	}
+
+	/**
+	 * Evaluate, at {@code x}, the Lagrange polynomial through an array of points, without
+	 * computing the coefficients of the polynomial.
+	 * @param pts The points on the polynomial, with distinct X coordinates
+	 * @param x The X coordinate to evaluate at
+	 * @param modulus The prime modulus
+	 * @return The Y coordinate, in {@code [0, modulus)}
+	 * @see #lagrangeWeights(BigInteger[], BigInteger, BigInteger)
+	 */
+	public static BigInteger interpolate(BigPoint[] pts, BigInteger x, BigInteger modulus) {
+		InputValidation.begin().when(pts == null, "pts is null").validate();
+		BigInteger[] px = new BigInteger[pts.length];
+		for(int i = 0; i < pts.length; i++)
+			px[i] = pts[i].getX();
+		BigInteger[] weights = lagrangeWeights(px, x, modulus);
+		BigInteger result = BigInteger.ZERO;
+		for(int i = 0; i < pts.length; i++)
+			result = result.add(weights[i].multiply(pts[i].getY()));
+		return result.mod(modulus);
+	}
+
+	/**
+	 * Create a random secret-generating polynomial for the argument secret
+	 * @param secret The secret, as a Y coordinate on a polynomial
+	 * @param secretBits Number of bits in the secret
+	 * @param powx The power of the polynomial, one less than the number of required secret parts
+	 * @param rnd A source of random
+	 * @return A new {@link ModularPolynomial}
+	 */
+	public static ModularPolynomial secretPolynomial(BigInteger secret, int secretBits, int powx, Random rnd) {
+		InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.when(secretBits < 0, "secretBits is less than zero")
+			.when(powx < 0, "powx is less than zero")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		BigInteger prime = BigInteger.probablePrime(secretBits+1, rnd);
+		while(prime.compareTo(secret) < 0)
+			prime = BigInteger.probablePrime(secretBits+1, rnd);
+		BigInteger[] coefficients = new BigInteger[powx + 1];
+		coefficients[0] = secret;
+		RandomCoefficients random = new RandomCoefficients(rnd);
+		for(int i = 1; i <= powx; i++) {
+			BigInteger a = random.nextBits(secretBits);
+			while(a.compareTo(prime) >= 0)
+				a = random.nextBits(secretBits);
+			coefficients[i] = a;
+		}
+		return new ModularPolynomial(coefficients, prime);
+	}
+
+	/**
+	 * The coefficients of this polynomial.  The ith element in the array
+	 * is multiplied by x^i in the polynomial
+	 */
+	private BigInteger[] coefficients;
+
+	/**
+	 * The prime modulus for this polynomial
+	 */
+	private BigInteger modulus;
+
+	/**
+	 * Create a new {@link ModularPolynomial} from an array of coefficients and a modulus.
+	 * The 0th element is the 0th power in the polynomial, 1th element
+	 * is 1th power, etc.  Coefficients are reduced modulo {@code modulus}.
+	 * @param coefficients The array of coefficients
+	 * @param modulus The prime modulus
+	 */
+	public ModularPolynomial(BigInteger[] coefficients, BigInteger modulus) {
+		InputValidation iv = InputValidation.begin()
+			.when(coefficients == null, "coefficients is null")
+			.when(modulus == null, "modulus is null")
+			.when(modulus != null && modulus.compareTo(BigInteger.ONE) <= 0, "modulus not greater than one")
+			.validate();
+		for(BigInteger c : coefficients)
+			iv.when(c == null, "coefficient is null");
+		iv.validate();
+		this.coefficients = new BigInteger[coefficients.length];
+		for(int i = 0; i < coefficients.length; i++)
+			this.coefficients[i] = coefficients[i].mod(modulus);
+		this.modulus = modulus;
+	}
+
+	/**
+	 * Create a new {@link ModularPolynomial} from a {@link TermPolynomial} which has
+	 * a modulus.  Fractional terms are converted to residues by multiplying
+	 * their numerator with the modular inverse of their denominator.
+	 * @param poly The {@link TermPolynomial} to convert
+	 */
+	public ModularPolynomial(TermPolynomial poly) {
+		this(residues(poly), poly.getModulus());
+	}
+
+	/**
+	 * Convert the terms of a {@link TermPolynomial} into residues of its modulus
+	 * @param poly The {@link TermPolynomial}
+	 * @return The residues
+	 */
+	private static BigInteger[] residues(TermPolynomial poly) {
+		InputValidation.begin()
+			.when(poly == null, "poly is null")
+			.when(poly != null && poly.getModulus() == null, "poly has no modulus")
+			.validate();
+		Term[] terms = poly.getTerms();
+		BigInteger[] r = new BigInteger[terms.length];
+		for(int i = 0; i < terms.length; i++)
+			r[i] = terms[i].getNumerator().multiply(terms[i].getDenominator().modInverse(poly.getModulus()));
+		return r;
+	}
+
+	/**
+	 * Create a random secret-generating polynomial for the argument secret
+	 * @param secret The secret, as a {@link BigInteger}
+	 * @param secretBits The number of bits in the secret
+	 * @param powx The power of the polynomial, one less than the number of required secret parts
+	 * @param rnd A source of randomness
+	 */
+	public ModularPolynomial(BigInteger secret, int secretBits, int powx, Random rnd) {
+		this(secretPolynomial(secret, secretBits, powx, rnd));
+	}
+
+	/**
+	 * Create a Lagrange interpolating polynomial for the argument points
+	 * and modulus
+	 * @param pts The points to interpolate
+	 * @param modulus The polynomial modulus
+	 */
+	public ModularPolynomial(BigPoint[] pts, BigInteger modulus) {
+		this(lagrangePolynomial(pts, modulus));
+	}
+
+	/**
+	 * Copy constructor
+	 * @param other The {@link ModularPolynomial} to copy
+	 */
+	private ModularPolynomial(ModularPolynomial other) {
+		this.coefficients = other.coefficients;
+		this.modulus = other.modulus;
+	}
+
+	@Override
+	public String toString() {
+		if(coefficients.length == 0)
+			return "0 (mod " + modulus + ")";
+		StringBuilder sb = new StringBuilder(coefficients[0].toString());
+		for(int i = 1; i < coefficients.length; i++)
+			sb.append(" + " + coefficients[i] + "x^" + i);
+		sb.append(" (mod " + modulus + ")");
+		return sb.toString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(obj == this)
+			return true;
+		if(obj instanceof ModularPolynomial) {
+			ModularPolynomial p = (ModularPolynomial) obj;
+			return Arrays.equals(coefficients, p.coefficients) && modulus.equals(p.modulus);
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(coefficients) + modulus.hashCode();
+	}
+
+	/**
+	 * Return the coefficients in this polynomial, ordered such that the nth element
+	 * in the array is the coefficient to the nth power of X
+	 * @return The coefficients
+	 */
+	public BigInteger[] getCoefficients() {
+		return Arrays.copyOf(coefficients, coefficients.length);
+	}
+
+	/**
+	 * Return the prime modulus
+	 * @return The modulus
+	 */
+	public BigInteger getModulus() {
+		return modulus;
+	}
+
+	/**
+	 * Return this polynomial as an equivalent {@link TermPolynomial}
+	 * @return A new {@link TermPolynomial}
+	 */
+	public TermPolynomial toTermPolynomial() {
+		Term[] terms = new Term[coefficients.length];
+		for(int i = 0; i < terms.length; i++)
+			terms[i] = new Term(coefficients[i]);
+		return new TermPolynomial(terms, modulus);
+	}
+
+	/**
+	 * Compute the Y coordinate for a given X coordinate
+	 * @param x The X coordinate
+	 * @return The Y coordinate, in {@code [0, modulus)}
+	 */
+	public BigInteger y(BigInteger x) {
+		InputValidation.begin().when(x == null, "argument is null").validate();
+		BigInteger result = BigInteger.ZERO;
+		for(int i = coefficients.length - 1; i >= 0; i--)
+			result = result.multiply(x).add(coefficients[i]).mod(modulus);
+		return result;
+	}
+
+	/**
+	 * Add this polynomial to another polynomial with the same modulus and return a new polynomial
+	 * @param other The {@link ModularPolynomial} to add
+	 * @return A new {@link ModularPolynomial}
+	 */
+	public ModularPolynomial add(ModularPolynomial other) {
+		InputValidation.begin()
+			.when(other == null, "argument is null")
+			.when(other != null && !modulus.equals(other.modulus), "inconsistent moduli")
+			.validate();
+		BigInteger[] c = new BigInteger[Math.max(coefficients.length, other.coefficients.length)];
+		for(int i = 0; i < c.length; i++) {
+			BigInteger lhs = (i < coefficients.length) ? coefficients[i] : BigInteger.ZERO;
+			BigInteger rhs = (i < other.coefficients.length) ? other.coefficients[i] : BigInteger.ZERO;
+			c[i] = lhs.add(rhs);
+		}
+		return new ModularPolynomial(c, modulus);
+	}
+
+	/**
+	 * Multiply this polynomial by another polynomial with the same modulus
+	 * and return a new polynomial
+	 * @param other The {@link ModularPolynomial} to multiply by
+	 * @return A new {@link ModularPolynomial}
+	 */
+	public ModularPolynomial multiply(ModularPolynomial other) {
+		InputValidation.begin()
+			.when(other == null, "argument is null")
+			.when(other != null && !modulus.equals(other.modulus), "inconsistent moduli")
+			.validate();
+		if(coefficients.length == 0 || other.coefficients.length == 0)
+			return new ModularPolynomial(new BigInteger[0], modulus);
+		BigInteger[] c = new BigInteger[coefficients.length + other.coefficients.length - 1];
+		Arrays.fill(c, BigInteger.ZERO);
+		for(int i = 0; i < coefficients.length; i++) {
+			for(int j = 0; j < other.coefficients.length; j++)
+				c[i+j] = c[i+j].add(coefficients[i].multiply(other.coefficients[j]));
+		}
+		return new ModularPolynomial(c, modulus);
+	}
+
+	/**
+	 * Multiply this polynomial by a constant and return
+	 * a new polynomial
+	 * @param val The number to multiply by
+	 * @return A new {@link ModularPolynomial}
+	 */
+	public ModularPolynomial multiply(BigInteger val) {
+		InputValidation.begin().when(val == null, "argument is null").validate();
+		BigInteger[] c = new BigInteger[coefficients.length];
+		for(int i = 0; i < c.length; i++)
+			c[i] = coefficients[i].multiply(val);
+		return new ModularPolynomial(c, modulus);
+	}
+
+	/**
+	 * Return a single point on this polynomial, as a {@link BigPoint}
+	 * @param x The X coordinate of the point
+	 * @return The point
+	 */
+	public BigPoint p(BigInteger x) {
+		InputValidation.begin().when(x == null, "argument is null").validate();
+		return new BigPoint(x, y(x));
+	}
+
+	/**
+	 * Return an array of points on this polynomial for
+	 * the argument array of X values, as {@link BigPoint}s
+	 * @param x The X coordinates of the points
+	 * @return An array of points
+	 */
+	public BigPoint[] p(BigInteger[] x) {
+		InputValidation.begin().when(x == null, "argument is null").validate();
+		BigPoint[] pts = new BigPoint[x.length];
+		for(int i = 0; i < x.length; i++)
+			pts[i] = p(x[i]);
+		return pts;
+	}
+}
@@ -265,7 +265,8 @@ public class Part {
 	
 	/**
 	 * Join this {@link Part} with an array of other {@link Part}s of the same
-	 * type to reconstruct a secret.  {@link Part} may not be joined with {@link PerBytePart}. 
+	 * type to reconstruct a secret.  {@link Part} may not be joined with {@link PerBytePart},
+	 * {@link GF256Part}, {@link BlockPart} or {@link DispersalPart}.
 	 * @param otherParts Array of other parts to join with this one.
 	 * @return The reconstructed secret
 	 */
@@ -281,6 +282,9 @@ public class Part {
 		for(Part p : parts) {
 			iv
 				.when(p instanceof PerBytePart, "cannot apply multibyte join to perbyte parts")
+				.when(p instanceof GF256Part, "cannot apply multibyte join to GF(256) parts")
+				.when(p instanceof BlockPart, "cannot apply multibyte join to block parts")
+				.when(p instanceof DispersalPart, "cannot apply multibyte join to dispersal parts")
 				.validate();
 		}
 		return Secrets.joinMultibyte(parts);
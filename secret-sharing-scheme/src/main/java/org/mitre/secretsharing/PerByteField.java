@@ -0,0 +1,327 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Primitive {@code int} arithmetic modulo {@link PerBytePart#MODULUS}, used by
+ * {@link Secrets} to split and join {@link PerBytePart}s without creating
+ * a polynomial object, or any {@link java.math.BigInteger}, per secret byte.<p>
+ * 
+ * Y values are stored as two bytes, big-endian, in the same layout used by
+ * the Y coordinate of a {@link PerBytePart}.
+ * @author Robin Kirkman
+ *
+ */
+abstract class PerByteField {
+	/**
+	 * The prime modulus, as an {@code int}
+	 */
+	static final int P = PerBytePart.MODULUS.intValue();
+	
+	/**
+	 * Choose distinct random X coordinates in {@code [1, P)} for a number of parts.
+	 * Each X coordinate is drawn by index from the coordinates not yet chosen, in
+	 * ascending order, without building the list of those coordinates.
+	 * @param totalParts The number of parts, at most {@link PerBytePart#MAX_PARTS}
+	 * @param rnd A source of random
+	 * @return The X coordinate of each part
+	 */
+	static int[] xs(int totalParts, Random rnd) {
+		int[] x = new int[totalParts];
+		int[] chosen = new int[totalParts];
+		for(int j = 0; j < x.length; j++) {
+			int v = 1 + (int)(rnd.nextDouble() * (P - 1 - j));
+			int i = 0;
+			for(; i < j && chosen[i] <= v; i++)
+				v++;
+			System.arraycopy(chosen, i, chosen, i + 1, j - i);
+			chosen[i] = v;
+			x[j] = v;
+		}
+		return x;
+	}
+	
+	/**
+	 * Compute the powers of each X coordinate used to evaluate a polynomial
+	 * @param xs The X coordinates, each in {@code [0, P)}
+	 * @param requiredParts The number of coefficients of the polynomial
+	 * @return {@code powers[j][c]} is {@code xs[j]} to the power {@code c}, modulo {@code P}
+	 */
+	static int[][] powers(int[] xs, int requiredParts) {
+		int[][] powers = new int[xs.length][Math.max(requiredParts, 1)];
+		for(int j = 0; j < xs.length; j++) {
+			powers[j][0] = 1;
+			for(int c = 1; c < powers[j].length; c++)
+				powers[j][c] = (int)((long) powers[j][c - 1] * xs[j] % P);
+		}
+		return powers;
+	}
+	
+	/**
+	 * Split a range of secret bytes, writing the two-byte Y value of each
+	 * secret byte into the buffer of each part.
+	 * @param secret The secret
+	 * @param off The offset of the first secret byte to split
+	 * @param len The number of secret bytes to split
+	 * @param xs The X coordinate of each part
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @param ys The Y value buffer of each part, parallel to {@code xs}
+	 * @param yoff The offset in each Y value buffer of the Y value for {@code secret[off]}
+	 */
+	static void split(byte[] secret, int off, int len, int[] xs, int requiredParts, RandomCoefficients rnd, byte[][] ys, int yoff) {
+		split(secret, off, len, powers(xs, requiredParts), rnd, ys, yoff);
+	}
+	
+	/**
+	 * Split a range of secret bytes, writing the two-byte Y value of each
+	 * secret byte into the buffer of each part.  Each Y value is the sum of the
+	 * coefficients times the powers of the X coordinate, reduced once.
+	 * @param secret The secret
+	 * @param off The offset of the first secret byte to split
+	 * @param len The number of secret bytes to split
+	 * @param powers The powers of the X coordinate of each part, from {@link #powers(int[], int)}
+	 * @param rnd A source of random coefficients
+	 * @param ys The Y value buffer of each part, parallel to {@code powers}
+	 * @param yoff The offset in each Y value buffer of the Y value for {@code secret[off]}
+	 */
+	static void split(byte[] secret, int off, int len, int[][] powers, RandomCoefficients rnd, byte[][] ys, int yoff) {
+		int[] coefficients = new int[powers.length == 0 ? 1 : powers[0].length];
+		for(int i = 0; i < len; i++) {
+			coefficients[0] = 0xFF & secret[off + i];
+			for(int j = 1; j < coefficients.length; j++)
+				coefficients[j] = rnd.nextInt(P);
+			int pos = yoff + 2 * i;
+			for(int j = 0; j < powers.length; j++) {
+				int[] pow = powers[j];
+				long y = 0;
+				for(int c = 0; c < coefficients.length; c++)
+					y += (long) coefficients[c] * pow[c];
+				y %= P;
+				ys[j][pos] = (byte)(y >>> 8);
+				ys[j][pos + 1] = (byte) y;
+			}
+		}
+	}
+	
+	/**
+	 * Join a range of secret bytes from the two-byte Y values of the parts, using
+	 * Lagrange weights previously computed by {@link #lagrangeWeights(int[], int)}
+	 * @param ys The Y value buffer of each part, parallel to {@code weights}
+	 * @param yoff The offset in each Y value buffer of the Y value for {@code secret[off]}
+	 * @param weights The Lagrange weights at zero for the X coordinates of the parts
+	 * @param secret The buffer for the reconstructed secret
+	 * @param off The offset of the first secret byte to reconstruct
+	 * @param len The number of secret bytes to reconstruct
+	 */
+	static void join(byte[][] ys, int yoff, int[] weights, byte[] secret, int off, int len) {
+		for(int i = 0; i < len; i++) {
+			int pos = yoff + 2 * i;
+			long s = 0;
+			for(int j = 0; j < weights.length; j++)
+				s += (long) weights[j] * (((0xFF & ys[j][pos]) << 8) | (0xFF & ys[j][pos + 1]));
+			secret[off + i] = (byte)(s % P);
+		}
+	}
+	
+	/**
+	 * Evaluate the polynomials through a set of parts at another X coordinate, writing
+	 * the two-byte Y value of each secret byte for a new part
+	 * @param ys The Y value buffer of each part
+	 * @param weights The Lagrange weights of the parts at the new X coordinate
+	 * @param y The Y value buffer of the new part
+	 * @param yoff The offset in {@code y} of the Y value for the first secret byte
+	 * @param len The number of secret bytes
+	 */
+	static void extend(byte[][] ys, int[] weights, byte[] y, int yoff, int len) {
+		for(int i = 0; i < len; i++) {
+			int pos = 2 * i;
+			long s = 0;
+			for(int j = 0; j < weights.length; j++)
+				s += (long) weights[j] * (((0xFF & ys[j][pos]) << 8) | (0xFF & ys[j][pos + 1]));
+			s %= P;
+			y[yoff + pos] = (byte)(s >>> 8);
+			y[yoff + pos + 1] = (byte) s;
+		}
+	}
+	
+	/**
+	 * Compute the Lagrange basis weights for a set of X coordinates, evaluated at {@code x}
+	 * @param xs The X coordinates, distinct and in {@code [0, P)}
+	 * @param x The X coordinate to evaluate at, in {@code [0, P)}
+	 * @return The weights, or {@code null} if the X coordinates are not distinct
+	 */
+	static int[] lagrangeWeights(int[] xs, int x) {
+		int[] inv = Inverses.TABLE;
+		int[] weights = new int[xs.length];
+		for(int j = 0; j < xs.length; j++) {
+			long w = 1;
+			for(int i = 0; i < xs.length; i++) {
+				if(i == j)
+					continue;
+				int d = (xs[j] - xs[i] + P) % P;
+				if(d == 0)
+					return null;
+				w = w * ((x - xs[i] + P) % P) % P * inv[d] % P;
+			}
+			weights[j] = (int) w;
+		}
+		return weights;
+	}
+	
+	/**
+	 * Compute the Lagrange basis weights for a set of X coordinates, evaluated at each of
+	 * several X coordinates.  The denominators are computed and inverted once, so each
+	 * further X coordinate costs {@code O(n)} multiplications.
+	 * @param xs The X coordinates, distinct and in {@code [0, P)}
+	 * @param at The X coordinates to evaluate at, in {@code [0, P)}
+	 * @return The weights for each of {@code at}, or {@code null} if the X coordinates are not distinct
+	 */
+	static int[][] lagrangeWeights(int[] xs, int[] at) {
+		int[] inv = Inverses.TABLE;
+		int n = xs.length;
+		long[] invDen = new long[n];
+		for(int j = 0; j < n; j++) {
+			long d = 1;
+			for(int i = 0; i < n; i++) {
+				if(i != j)
+					d = d * ((xs[j] - xs[i] + P) % P) % P;
+			}
+			if(d == 0)
+				return null;
+			invDen[j] = inv[(int) d];
+		}
+		int[][] weights = new int[at.length][n];
+		long[] num = new long[n];
+		for(int t = 0; t < at.length; t++) {
+			long acc = 1;
+			for(int j = 0; j < n; j++) {
+				num[j] = acc;
+				acc = acc * ((at[t] - xs[j] + P) % P) % P;
+			}
+			acc = 1;
+			for(int j = n - 1; j >= 0; j--) {
+				weights[t][j] = (int)(num[j] * acc % P * invDen[j] % P);
+				acc = acc * ((at[t] - xs[j] + P) % P) % P;
+			}
+		}
+		return weights;
+	}
+	
+	/**
+	 * Check which of several parts lie on the polynomials through a set of parts, one polynomial
+	 * per secret byte.  The Y values of the set are read once per secret byte for every part checked.
+	 * @param ys The two-byte Y value buffer of each part in the set
+	 * @param weights The Lagrange weights of the set at the X coordinate of each part checked,
+	 * from {@link #lagrangeWeights(int[], int[])}
+	 * @param checks The two-byte Y value buffer of each part checked, parallel to {@code weights}
+	 * @param bad Set to {@code true} for each part checked that does not lie on the polynomials
+	 * @param len The number of secret bytes
+	 */
+	static void verify(byte[][] ys, int[][] weights, byte[][] checks, boolean[] bad, int len) {
+		int[] v = new int[ys.length];
+		for(int i = 0; i < len; i++) {
+			int pos = 2 * i;
+			for(int j = 0; j < ys.length; j++)
+				v[j] = ((0xFF & ys[j][pos]) << 8) | (0xFF & ys[j][pos + 1]);
+			for(int e = 0; e < checks.length; e++) {
+				if(bad[e])
+					continue;
+				long s = 0;
+				for(int j = 0; j < v.length; j++)
+					s += (long) weights[e][j] * v[j];
+				bad[e] = (s % P != (((0xFF & checks[e][pos]) << 8) | (0xFF & checks[e][pos + 1])));
+			}
+		}
+	}
+	
+	/**
+	 * Split a secret again from the Y values of its parts, recovering and splitting
+	 * {@code chunkSize} secret bytes at a time so that the secret is never held whole
+	 * @param ys The two-byte Y value buffer of each old part, parallel to {@code weights}
+	 * @param weights The Lagrange weights at zero of the old parts
+	 * @param len The number of secret bytes
+	 * @param chunkSize The number of secret bytes to recover at a time
+	 * @param powers The powers of the X coordinate of each new part, from {@link #powers(int[], int)}
+	 * @param rnd A source of random coefficients
+	 * @param fresh The Y value buffer of each new part, parallel to {@code powers}
+	 * @param yoff The offset in each new Y value buffer of the Y value for the first secret byte
+	 */
+	static void reshare(byte[][] ys, int[] weights, int len, int chunkSize, int[][] powers, RandomCoefficients rnd, byte[][] fresh, int yoff) {
+		byte[] chunk = new byte[Math.min(len, chunkSize)];
+		for(int off = 0; off < len; off += chunk.length) {
+			int n = Math.min(chunk.length, len - off);
+			join(ys, 2 * off, weights, chunk, 0, n);
+			split(chunk, 0, n, powers, rnd, fresh, yoff + 2 * off);
+		}
+		Arrays.fill(chunk, (byte) 0);
+	}
+	
+	/**
+	 * Sum the two-byte Y values of a part with one weight per secret byte.  The Y values for
+	 * each secret byte are a codeword of the same code, so the sum is a codeword too.
+	 * @param y The two-byte Y value buffer of the part
+	 * @param weights The weight of each secret byte, each in {@code [0, P)}
+	 * @return The weighted sum, in {@code [0, P)}
+	 */
+	static int combine(byte[] y, int[] weights) {
+		long s = 0;
+		for(int i = 0; i < weights.length; i++)
+			s = (s + (long) weights[i] * (((0xFF & y[2 * i]) << 8) | (0xFF & y[2 * i + 1]))) % P;
+		return (int) s;
+	}
+	
+	/**
+	 * Evaluate a polynomial by Horner's rule
+	 * @param coefficients The coefficients, lowest power first, each in {@code [0, P)}
+	 * @param x The X coordinate, in {@code [0, P)}
+	 * @return The Y coordinate, in {@code [0, P)}
+	 */
+	static int y(int[] coefficients, int x) {
+		long y = 0;
+		for(int i = coefficients.length - 1; i >= 0; i--)
+			y = (y * x + coefficients[i]) % P;
+		return (int) y;
+	}
+	
+	/**
+	 * Lazily-initialized table of multiplicative inverses modulo {@link PerByteField#P}
+	 */
+	private static class Inverses {
+		/**
+		 * {@code TABLE[i]} is the inverse of {@code i}, for {@code 0 < i < P}
+		 */
+		static final int[] TABLE = new int[P];
+		static {
+			TABLE[1] = 1;
+			for(int i = 2; i < P; i++)
+				TABLE[i] = (int)((P - (long)(P / i) * TABLE[P % i] % P) % P);
+		}
+	}
+	
+	private PerByteField() {}
+}
@@ -0,0 +1,148 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Source of random polynomial coefficients that pulls bytes from a {@link Random}
+ * in blocks with {@link Random#nextBytes(byte[])}, rather than calling it once or twice
+ * per coefficient.  Field elements are drawn without bias by rejection sampling on
+ * the fewest whole bytes that can hold them.<p>
+ * 
+ * Blocks start at {@link #MIN_BLOCK} bytes and double on each refill up to {@link #MAX_BLOCK},
+ * so splitting a small secret draws little more random than it needs while a large secret
+ * makes few calls to the {@link Random}.  The blocks drawn depend only on how many bytes have
+ * been consumed, so a secret split in one piece or in several pieces with the same
+ * {@link RandomCoefficients} gets the same coefficients.  Not thread-safe; each thread
+ * splitting a secret uses its own.
+ * @author Robin Kirkman
+ *
+ */
+class RandomCoefficients {
+	/**
+	 * The size of the first block
+	 */
+	static final int MIN_BLOCK = 64;
+	/**
+	 * The largest size of a block
+	 */
+	static final int MAX_BLOCK = 4096;
+	
+	private final Random rnd;
+	private byte[] block = new byte[0];
+	private int pos;
+	
+	/**
+	 * Create a {@link RandomCoefficients}
+	 * @param rnd The source of random
+	 */
+	RandomCoefficients(Random rnd) {
+		this.rnd = rnd;
+	}
+	
+	/**
+	 * Return the next random byte, unsigned
+	 * @return A random value in {@code [0, 256)}
+	 */
+	int nextByte() {
+		if(pos == block.length)
+			refill();
+		return 0xFF & block[pos++];
+	}
+	
+	/**
+	 * Fill part of an array with random bytes
+	 * @param b The array
+	 * @param off The offset of the first byte to fill
+	 * @param len The number of bytes to fill
+	 */
+	void nextBytes(byte[] b, int off, int len) {
+		while(len > 0) {
+			if(pos == block.length)
+				refill();
+			int n = Math.min(len, block.length - pos);
+			System.arraycopy(block, pos, b, off, n);
+			pos += n;
+			off += n;
+			len -= n;
+		}
+	}
+	
+	/**
+	 * Return a uniformly random {@code int} less than {@code bound}
+	 * @param bound The exclusive upper bound, in {@code [1, 65536]}
+	 * @return A random value in {@code [0, bound)}
+	 */
+	int nextInt(int bound) {
+		int mask = (Integer.highestOneBit(bound) << 1) - 1;
+		if(Integer.bitCount(bound) == 1)
+			mask >>>= 1;
+		int v;
+		do {
+			v = nextByte();
+			if(mask > 0xFF)
+				v = (v << 8) | nextByte();
+			v &= mask;
+		} while(v >= bound);
+		return v;
+	}
+	
+	/**
+	 * Return a uniformly random non-negative {@link BigInteger} of at most {@code bits} bits
+	 * @param bits The number of random bits
+	 * @return A random value in {@code [0, 2^bits)}
+	 */
+	BigInteger nextBits(int bits) {
+		byte[] b = new byte[(bits + 7) / 8];
+		nextBytes(b, 0, b.length);
+		if(bits % 8 != 0)
+			b[0] &= (1 << (bits % 8)) - 1;
+		return new BigInteger(1, b);
+	}
+	
+	/**
+	 * Return a uniformly random {@link BigInteger} less than {@code bound}
+	 * @param bound The exclusive upper bound, positive
+	 * @return A random value in {@code [0, bound)}
+	 */
+	BigInteger nextBigInteger(BigInteger bound) {
+		int bits = bound.bitLength();
+		BigInteger v = nextBits(bits);
+		while(v.compareTo(bound) >= 0)
+			v = nextBits(bits);
+		return v;
+	}
+	
+	/**
+	 * Draw the next block of random bytes
+	 */
+	private void refill() {
+		if(block.length < MAX_BLOCK)
+			block = new byte[Math.min(MAX_BLOCK, Math.max(MIN_BLOCK, 2 * block.length))];
+		rnd.nextBytes(block);
+		pos = 0;
+	}
+}
@@ -0,0 +1,283 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * Utility class for splitting and joining secrets stored in files, using memory-mapped
+ * regions of the secret and share files instead of reading them through streams.
+ * Share files are sized up front from the length of the secret and are written
+ * region by region, {@link #REGION_SIZE} secret bytes at a time.<p>
+ * 
+ * Share files have the same layout as the share streams of {@link SecretStreams},
+ * so files split by one class can be joined by the other.
+ * @author Robin Kirkman
+ *
+ */
+public abstract class SecretFiles {
+	/**
+	 * The number of secret bytes mapped at a time
+	 */
+	public static final int REGION_SIZE = 64 * 1024 * 1024;
+	
+	/**
+	 * Split a secret file into share files by treating the secret as individual secrets
+	 * of 1 byte each, as {@link Secrets#splitPerByte(byte[], int, int, Random)} does.
+	 * Each share file is twice the size of the secret plus its header.
+	 * @param in The secret file to split
+	 * @param out The share files to create or overwrite
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The number of secret bytes split
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static long splitPerByte(File in, File[] out, int requiredParts, Random rnd) throws IOException {
+		SecretStreams.validate(in, out, requiredParts, rnd, PerBytePart.MAX_PARTS);
+		return split(in, out, requiredParts, rnd, PerBytePart.MODULUS, PerByteField.xs(out.length, rnd), REGION_SIZE);
+	}
+	
+	/**
+	 * Split a secret file into share files by treating the secret as individual secrets
+	 * of 1 byte each, shared over GF(2^8), as {@link Secrets#splitGF256(byte[], int, int, Random)} does.
+	 * Each share file is the size of the secret plus its header.
+	 * @param in The secret file to split
+	 * @param out The share files to create or overwrite
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The number of secret bytes split
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static long splitGF256(File in, File[] out, int requiredParts, Random rnd) throws IOException {
+		SecretStreams.validate(in, out, requiredParts, rnd, GF256Part.MAX_PARTS);
+		return split(in, out, requiredParts, rnd, GF256Part.MODULUS, GF256.xs(out.length, rnd), REGION_SIZE);
+	}
+	
+	/**
+	 * Join share files created by {@link #splitPerByte(File, File[], int, Random)} or
+	 * {@link #splitGF256(File, File[], int, Random)}, or by {@link SecretStreams},
+	 * writing the secret to a file.
+	 * @param in The share files, at least as many as the number of parts required
+	 * @param out The secret file to create or overwrite
+	 * @return The number of secret bytes written
+	 * @throws IOException if a file cannot be read or written, or a share file is truncated
+	 */
+	public static long join(File[] in, File out) throws IOException {
+		return join(in, out, REGION_SIZE);
+	}
+	
+	/**
+	 * Split a secret file into share files
+	 * @param in The secret file
+	 * @param out The share files
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @param modulus The modulus of the scheme
+	 * @param x The X coordinate of each share, parallel to {@code out}
+	 * @param regionSize The number of secret bytes to map at a time
+	 * @return The number of secret bytes split
+	 * @throws IOException if a file cannot be read or written
+	 */
+	static long split(File in, File[] out, int requiredParts, Random rnd, BigInteger modulus, int[] x, int regionSize) throws IOException {
+		boolean perByte = PerBytePart.MODULUS.equals(modulus);
+		int width = SecretStreams.width(modulus);
+		
+		RandomAccessFile src = new RandomAccessFile(in, "r");
+		RandomAccessFile[] dst = new RandomAccessFile[out.length];
+		byte[] chunk = null;
+		Throwable failure = null;
+		try {
+			FileChannel sc = src.getChannel();
+			long length = sc.size();
+			long[] base = new long[out.length];
+			for(int j = 0; j < out.length; j++) {
+				dst[j] = new RandomAccessFile(out[j], "rw");
+				byte[] header = SecretStreams.header(requiredParts, modulus, x[j]);
+				dst[j].setLength(header.length + length * width);
+				dst[j].write(header);
+				base[j] = header.length;
+			}
+			
+			RandomCoefficients coefficients = new RandomCoefficients(rnd);
+			chunk = new byte[Math.min(SecretStreams.CHUNK_SIZE, regionSize)];
+			byte[][] ys = new byte[out.length][chunk.length * width];
+			MappedByteBuffer[] regions = new MappedByteBuffer[out.length];
+			for(long pos = 0; pos < length; pos += regionSize) {
+				int rlen = (int) Math.min(regionSize, length - pos);
+				MappedByteBuffer region = sc.map(MapMode.READ_ONLY, pos, rlen);
+				for(int j = 0; j < out.length; j++)
+					regions[j] = dst[j].getChannel().map(MapMode.READ_WRITE, base[j] + pos * width, (long) rlen * width);
+				while(region.hasRemaining()) {
+					int len = Math.min(chunk.length, region.remaining());
+					region.get(chunk, 0, len);
+					if(perByte)
+						PerByteField.split(chunk, 0, len, x, requiredParts, coefficients, ys, 0);
+					else
+						GF256.split(chunk, 0, len, x, requiredParts, coefficients, ys, 0);
+					for(int j = 0; j < out.length; j++)
+						regions[j].put(ys[j], 0, len * width);
+				}
+				for(MappedByteBuffer r : regions)
+					r.force();
+			}
+			return length;
+		} catch(Throwable t) {
+			failure = t;
+			throw t;
+		} finally {
+			if(chunk != null)
+				Arrays.fill(chunk, (byte) 0);
+			Closeable[] files = Arrays.copyOf(dst, dst.length + 1, Closeable[].class);
+			files[dst.length] = src;
+			close(files, failure);
+		}
+	}
+	
+	/**
+	 * Join share files into a secret file
+	 * @param in The share files
+	 * @param out The secret file
+	 * @param regionSize The number of secret bytes to map at a time
+	 * @return The number of secret bytes written
+	 * @throws IOException if a file cannot be read or written, or a share file is truncated
+	 */
+	static long join(File[] in, File out, int regionSize) throws IOException {
+		InputValidation iv = InputValidation.begin()
+			.when(in == null, "in is null")
+			.when(out == null, "out is null")
+			.validate();
+		for(File f : in)
+			iv.when(f == null, "in contains null");
+		iv.validate();
+		
+		RandomAccessFile[] src = new RandomAccessFile[in.length];
+		RandomAccessFile dst = null;
+		byte[] chunk = null;
+		Throwable failure = null;
+		try {
+			InputStream[] headers = new InputStream[in.length];
+			for(int j = 0; j < in.length; j++) {
+				src[j] = new RandomAccessFile(in[j], "r");
+				headers[j] = Channels.newInputStream(src[j].getChannel());
+			}
+			int[] weights = new int[in.length];
+			BigInteger modulus = SecretStreams.readHeaders(headers, weights);
+			boolean perByte = PerBytePart.MODULUS.equals(modulus);
+			int width = SecretStreams.width(modulus);
+			
+			long[] base = new long[in.length];
+			long ylen = -1;
+			for(int j = 0; j < in.length; j++) {
+				FileChannel c = src[j].getChannel();
+				base[j] = c.position();
+				if(ylen != -1 && c.size() - base[j] != ylen)
+					throw new EOFException("share files have different lengths");
+				ylen = c.size() - base[j];
+			}
+			if(ylen % width != 0)
+				throw new EOFException("truncated share file");
+			long length = ylen / width;
+			
+			dst = new RandomAccessFile(out, "rw");
+			dst.setLength(length);
+			FileChannel dc = dst.getChannel();
+			
+			chunk = new byte[Math.min(SecretStreams.CHUNK_SIZE, regionSize)];
+			byte[][] ys = new byte[in.length][chunk.length * width];
+			MappedByteBuffer[] regions = new MappedByteBuffer[in.length];
+			for(long pos = 0; pos < length; pos += regionSize) {
+				int rlen = (int) Math.min(regionSize, length - pos);
+				MappedByteBuffer region = dc.map(MapMode.READ_WRITE, pos, rlen);
+				for(int j = 0; j < in.length; j++)
+					regions[j] = src[j].getChannel().map(MapMode.READ_ONLY, base[j] + pos * width, (long) rlen * width);
+				while(region.hasRemaining()) {
+					int len = Math.min(chunk.length, region.remaining());
+					for(int j = 0; j < in.length; j++)
+						regions[j].get(ys[j], 0, len * width);
+					if(perByte)
+						PerByteField.join(ys, 0, weights, chunk, 0, len);
+					else
+						GF256.join(ys, 0, weights, chunk, 0, len);
+					region.put(chunk, 0, len);
+				}
+				region.force();
+			}
+			return length;
+		} catch(Throwable t) {
+			failure = t;
+			throw t;
+		} finally {
+			if(chunk != null)
+				Arrays.fill(chunk, (byte) 0);
+			Closeable[] files = Arrays.copyOf(src, src.length + 1, Closeable[].class);
+			files[src.length] = dst;
+			close(files, failure);
+			// do not leave a partly written secret behind
+			if(failure != null && dst != null)
+				out.delete();
+		}
+	}
+	
+	/**
+	 * Close every file that was opened, even if closing one of them fails.  Failures to close
+	 * are added as suppressed exceptions to the failure that ended the work on the files, if any,
+	 * so that they do not hide it.
+	 * @param files The files, which may include {@code null}s for files that were not opened
+	 * @param failure The exception that ended the work on the files, or {@code null} if it completed
+	 * @throws IOException The first failure to close a file, if the work completed
+	 */
+	private static void close(Closeable[] files, Throwable failure) throws IOException {
+		IOException closing = null;
+		for(Closeable c : files) {
+			try {
+				if(c != null)
+					c.close();
+			} catch(IOException e) {
+				if(failure != null)
+					failure.addSuppressed(e);
+				else if(closing == null)
+					closing = e;
+				else
+					closing.addSuppressed(e);
+			}
+		}
+		if(closing != null)
+			throw closing;
+	}
+	
+	private SecretFiles() {}
+}
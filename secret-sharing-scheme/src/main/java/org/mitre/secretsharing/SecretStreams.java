@@ -0,0 +1,353 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.mitre.secretsharing.codec.InputStreamByteIterator;
+import org.mitre.secretsharing.util.BytesReadable;
+import org.mitre.secretsharing.util.BytesWritable;
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * Utility class for splitting and joining secrets that are too large to hold in memory.
+ * The secret is read from a stream and split in chunks of {@link #CHUNK_SIZE} bytes,
+ * and each share is written to its own stream; joining reads the share streams in
+ * lock-step chunks and writes the secret to a stream.  Memory use does not depend on
+ * the length of the secret.<p>
+ * 
+ * Each share stream begins with a small header carrying the public part of the share:
+ * the header version, the number of parts required, the modulus of the scheme
+ * ({@link PerBytePart#MODULUS} or {@link GF256Part#MODULUS}) and the X coordinate of the share,
+ * written with {@link BytesWritable}.  The header is followed by the Y value of each secret byte
+ * in order, two bytes big-endian for per-byte shares and one byte for GF(2^8) shares.
+ * The body of a share stream is therefore the same as the Y value of the
+ * {@link PerBytePart} or {@link GF256Part} that {@link Secrets} would create for the same secret.<p>
+ * 
+ * Streams passed to this class are flushed but not closed.
+ * @author Robin Kirkman
+ *
+ */
+public abstract class SecretStreams {
+	/**
+	 * The version of the share stream header
+	 */
+	public static final int HEADER_VERSION = 0;
+	
+	/**
+	 * The number of secret bytes read and split at a time
+	 */
+	public static final int CHUNK_SIZE = 64 * 1024;
+	
+	/**
+	 * Split a secret read from a stream into share streams by treating the secret as individual
+	 * secrets of 1 byte each, as {@link Secrets#splitPerByte(byte[], int, int, Random)} does.
+	 * One share is written to each output stream.
+	 * @param in The secret to split
+	 * @param out The streams to write the shares to
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The number of secret bytes split
+	 * @throws IOException if a stream cannot be read or written
+	 */
+	public static long splitPerByte(InputStream in, OutputStream[] out, int requiredParts, Random rnd) throws IOException {
+		validate(in, out, requiredParts, rnd, PerBytePart.MAX_PARTS);
+		return split(in, out, requiredParts, rnd, PerBytePart.MODULUS, PerByteField.xs(out.length, rnd));
+	}
+	
+	/**
+	 * Split a secret read from a channel into share channels by treating the secret as individual
+	 * secrets of 1 byte each, as {@link Secrets#splitPerByte(byte[], int, int, Random)} does.
+	 * One share is written to each output channel.
+	 * @param in The secret to split
+	 * @param out The channels to write the shares to
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The number of secret bytes split
+	 * @throws IOException if a channel cannot be read or written
+	 */
+	public static long splitPerByte(ReadableByteChannel in, WritableByteChannel[] out, int requiredParts, Random rnd) throws IOException {
+		return splitPerByte(stream(in), streams(out), requiredParts, rnd);
+	}
+	
+	/**
+	 * Split a secret read from a stream into share streams by treating the secret as individual
+	 * secrets of 1 byte each, shared over GF(2^8), as {@link Secrets#splitGF256(byte[], int, int, Random)} does.
+	 * One share is written to each output stream, and each share is the size of the secret plus its header.
+	 * @param in The secret to split
+	 * @param out The streams to write the shares to
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The number of secret bytes split
+	 * @throws IOException if a stream cannot be read or written
+	 */
+	public static long splitGF256(InputStream in, OutputStream[] out, int requiredParts, Random rnd) throws IOException {
+		validate(in, out, requiredParts, rnd, GF256Part.MAX_PARTS);
+		return split(in, out, requiredParts, rnd, GF256Part.MODULUS, GF256.xs(out.length, rnd));
+	}
+	
+	/**
+	 * Split a secret read from a channel into share channels by treating the secret as individual
+	 * secrets of 1 byte each, shared over GF(2^8), as {@link Secrets#splitGF256(byte[], int, int, Random)} does.
+	 * One share is written to each output channel, and each share is the size of the secret plus its header.
+	 * @param in The secret to split
+	 * @param out The channels to write the shares to
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The number of secret bytes split
+	 * @throws IOException if a channel cannot be read or written
+	 */
+	public static long splitGF256(ReadableByteChannel in, WritableByteChannel[] out, int requiredParts, Random rnd) throws IOException {
+		return splitGF256(stream(in), streams(out), requiredParts, rnd);
+	}
+	
+	/**
+	 * Join share streams created by {@link #splitPerByte(InputStream, OutputStream[], int, Random)}
+	 * or {@link #splitGF256(InputStream, OutputStream[], int, Random)}, writing the secret to a stream.
+	 * The share streams are read in lock-step chunks until they end, and must all have the same length.
+	 * @param in The share streams, at least as many as the number of parts required
+	 * @param out The stream to write the secret to
+	 * @return The number of secret bytes written
+	 * @throws IOException if a stream cannot be read or written, or a share stream is truncated
+	 */
+	public static long join(InputStream[] in, OutputStream out) throws IOException {
+		InputValidation.begin()
+			.when(in == null, "in is null")
+			.when(out == null, "out is null")
+			.validate();
+		int[] weights = new int[in.length];
+		BigInteger modulus = readHeaders(in, weights);
+		boolean perByte = PerBytePart.MODULUS.equals(modulus);
+		int width = width(modulus);
+		
+		byte[] chunk = new byte[CHUNK_SIZE];
+		byte[][] ys = new byte[in.length][CHUNK_SIZE * width];
+		long length = 0;
+		for(;;) {
+			int ylen = readFully(in[0], ys[0]);
+			for(int j = 1; j < in.length; j++) {
+				if(readFully(in[j], ys[j]) != ylen)
+					throw new EOFException("share streams have different lengths");
+			}
+			if(ylen % width != 0)
+				throw new EOFException("truncated share stream");
+			int len = ylen / width;
+			if(perByte)
+				PerByteField.join(ys, 0, weights, chunk, 0, len);
+			else
+				GF256.join(ys, 0, weights, chunk, 0, len);
+			out.write(chunk, 0, len);
+			length += len;
+			if(ylen < ys[0].length)
+				break;
+		}
+		
+		out.flush();
+		return length;
+	}
+	
+	/**
+	 * Join share channels created by {@link #splitPerByte(ReadableByteChannel, WritableByteChannel[], int, Random)}
+	 * or {@link #splitGF256(ReadableByteChannel, WritableByteChannel[], int, Random)}, writing the secret to a channel.
+	 * @param in The share channels, at least as many as the number of parts required
+	 * @param out The channel to write the secret to
+	 * @return The number of secret bytes written
+	 * @throws IOException if a channel cannot be read or written, or a share channel is truncated
+	 * @see #join(InputStream[], OutputStream)
+	 */
+	public static long join(ReadableByteChannel[] in, WritableByteChannel out) throws IOException {
+		InputValidation.begin()
+			.when(in == null, "in is null")
+			.when(out == null, "out is null")
+			.validate();
+		InputStream[] s = new InputStream[in.length];
+		for(int j = 0; j < in.length; j++)
+			s[j] = stream(in[j]);
+		return join(s, Channels.newOutputStream(out));
+	}
+	
+	/**
+	 * Create the header of a share stream
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param modulus The modulus of the scheme
+	 * @param x The X coordinate of the share
+	 * @return The header bytes
+	 */
+	static byte[] header(int requiredParts, BigInteger modulus, int x) {
+		return new BytesWritable()
+			.writeInt(HEADER_VERSION)
+			.writeInt(requiredParts)
+			.writeBigInteger(modulus)
+			.writeBigInteger(BigInteger.valueOf(x))
+			.toByteArray();
+	}
+	
+	/**
+	 * Read and check the headers of share streams, leaving each stream positioned at
+	 * the start of its body, and compute the Lagrange weights at zero of the shares
+	 * @param in The share streams
+	 * @param weights The buffer for the Lagrange weight of each share, parallel to {@code in}
+	 * @return The modulus of the scheme
+	 * @throws IOException if a stream cannot be read, or a header is truncated
+	 */
+	static BigInteger readHeaders(InputStream[] in, int[] weights) throws IOException {
+		InputValidation iv = InputValidation.begin()
+			.when(in == null, "in is null")
+			.validate()
+			.when(in.length == 0, "in is empty");
+		for(InputStream i : in)
+			iv.when(i == null, "in contains null");
+		iv.validate();
+		
+		Integer requiredParts = null;
+		BigInteger modulus = null;
+		int[] x = new int[in.length];
+		for(int j = 0; j < in.length; j++) {
+			BytesReadable r = new BytesReadable(new InputStreamByteIterator(in[j]));
+			try {
+				int version = r.readInt();
+				iv.when(version != HEADER_VERSION, "unsupported share stream version " + version).validate();
+				int rp = r.readInt();
+				BigInteger m = r.readBigInteger();
+				requiredParts = (requiredParts == null ? rp : requiredParts);
+				modulus = (modulus == null ? m : modulus);
+				iv.when(rp != requiredParts, "inconsistent number of required parts");
+				iv.when(!m.equals(modulus), "inconsistent moduli");
+				iv.when(!m.equals(PerBytePart.MODULUS) && !m.equals(GF256Part.MODULUS), "unsupported modulus " + m);
+				BigInteger bx = r.readBigInteger();
+				iv.when(bx.signum() <= 0 || bx.compareTo(m) >= 0, "X coordinate out of range");
+				iv.when(GF256Part.MODULUS.equals(m) && bx.bitLength() > 8, "X coordinate out of range");
+				x[j] = bx.intValue();
+			} catch(NoSuchElementException e) {
+				throw new EOFException("truncated share stream header");
+			} catch(RuntimeException e) {
+				if(e.getCause() instanceof IOException)
+					throw (IOException) e.getCause();
+				throw e;
+			}
+		}
+		iv.validate()
+			.when(in.length < requiredParts, requiredParts + " parts required but " + in.length + " parts provided")
+			.validate();
+		
+		int[] w = PerBytePart.MODULUS.equals(modulus) ? PerByteField.lagrangeWeights(x, 0) : GF256.lagrangeWeights(x, 0);
+		iv.when(w == null, "duplicate X coordinates").validate();
+		System.arraycopy(w, 0, weights, 0, w.length);
+		return modulus;
+	}
+	
+	/**
+	 * Return the number of share bytes per secret byte
+	 * @param modulus The modulus of the scheme
+	 * @return {@code 2} for per-byte shares, {@code 1} for GF(2^8) shares
+	 */
+	static int width(BigInteger modulus) {
+		return PerBytePart.MODULUS.equals(modulus) ? 2 : 1;
+	}
+	
+	private static int readFully(InputStream in, byte[] buf) throws IOException {
+		int len = 0;
+		while(len < buf.length) {
+			int r = in.read(buf, len, buf.length - len);
+			if(r == -1)
+				break;
+			len += r;
+		}
+		return len;
+	}
+	
+	/**
+	 * Check the arguments of a split
+	 * @param in The secret
+	 * @param out The share outputs
+	 * @param requiredParts The number of shares required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @param maxParts The maximum number of shares of the scheme
+	 */
+	static void validate(Object in, Object[] out, int requiredParts, Random rnd, int maxParts) {
+		InputValidation iv = InputValidation.begin()
+			.when(in == null, "in is null")
+			.when(out == null, "out is null")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		for(Object o : out)
+			iv.when(o == null, "out contains null");
+		iv
+			.when(out.length < 1, "totalParts is less than 1")
+			.when(out.length > maxParts, "totalParts is greater than " + maxParts)
+			.when(requiredParts > out.length, "requiredParts is greater than totalParts")
+			.validate();
+	}
+	
+	private static long split(InputStream in, OutputStream[] out, int requiredParts, Random rnd, BigInteger modulus, int[] x) throws IOException {
+		boolean perByte = PerBytePart.MODULUS.equals(modulus);
+		int width = width(modulus);
+		
+		for(int j = 0; j < out.length; j++)
+			out[j].write(header(requiredParts, modulus, x[j]));
+		
+		RandomCoefficients coefficients = new RandomCoefficients(rnd);
+		byte[] chunk = new byte[CHUNK_SIZE];
+		byte[][] ys = new byte[out.length][CHUNK_SIZE * width];
+		long length = 0;
+		for(int len = in.read(chunk); len != -1; len = in.read(chunk)) {
+			if(perByte)
+				PerByteField.split(chunk, 0, len, x, requiredParts, coefficients, ys, 0);
+			else
+				GF256.split(chunk, 0, len, x, requiredParts, coefficients, ys, 0);
+			for(int j = 0; j < out.length; j++)
+				out[j].write(ys[j], 0, len * width);
+			length += len;
+		}
+		
+		for(OutputStream o : out)
+			o.flush();
+		return length;
+	}
+	
+	private static InputStream stream(ReadableByteChannel in) {
+		InputValidation.begin().when(in == null, "in is null").validate();
+		return Channels.newInputStream(in);
+	}
+	
+	private static OutputStream[] streams(WritableByteChannel[] out) {
+		InputValidation.begin().when(out == null, "out is null").validate();
+		OutputStream[] s = new OutputStream[out.length];
+		for(int j = 0; j < out.length; j++) {
+			InputValidation.begin().when(out[j] == null, "out contains null").validate();
+			s[j] = Channels.newOutputStream(out[j]);
+		}
+		return s;
+	}
+	
+	private SecretStreams() {}
+}
@@ -24,13 +24,23 @@ us know where this software is being used.
 package org.mitre.secretsharing;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Random;
+import java.util.concurrent.Executor;
 
 import org.mitre.secretsharing.util.BigIntegers;
 import org.mitre.secretsharing.util.InputValidation;
+import org.mitre.secretsharing.util.Parallel;
 
 /**
  * Utility class for splitting and joining secret and secret parts
@@ -38,6 +48,21 @@ import org.mitre.secretsharing.util.InputValidation;
  *
  */
 public abstract class Secrets {
+	/**
+	 * The minimum number of secret bytes to process in each parallel range
+	 */
+	private static final int MIN_PARALLEL_BYTES = 16 * 1024;
+	
+	/**
+	 * The number of random sums {@link #joinCorrecting(Part[])} decodes before giving up
+	 */
+	private static final int CORRECTION_ATTEMPTS = 4;
+	
+	/**
+	 * The number of secret bytes {@link #reshare(Part[][], int, int, Random)} recovers at a time
+	 */
+	private static final int RESHARE_CHUNK_SIZE = 16 * 1024;
+	
 	/**
 	 * Split a secret into a number of parts, using {@link #splitMultibyte(byte[], int, int, Random)}.
 	 * @param secret The secret to split
@@ -68,7 +93,7 @@ public abstract class Secrets {
 			.validate();
 		int secretBytes = secret.length;
 		int secretBits = secretBytes * 8;
-		TermPolynomial poly = new TermPolynomial(new BigInteger(1, secret), secretBits, requiredParts-1, rnd);
+		ModularPolynomial poly = new ModularPolynomial(new BigInteger(1, secret), secretBits, requiredParts-1, rnd);
 		BigPoint[] pts = poly.p(BigIntegers.range(1, totalParts + 1));
 		Part[] s = new Part[totalParts];
 		for(int i = 0; i < totalParts; i++)
@@ -85,6 +110,23 @@ public abstract class Secrets {
 	 * @return An array of secret {@link Part}s
 	 */
 	public static PerBytePart[] splitPerByte(byte[] secret, int totalParts, int requiredParts, Random rnd) {
+		return splitPerByte(secret, totalParts, requiredParts, rnd, null);
+	}
+	
+	/**
+	 * Split a secret into a number of parts by treating the secret byte array as individual secrets of 1 byte each.
+	 * Ranges of the secret are split in parallel on {@code executor} as described by
+	 * {@link Parallel#run(int, int, int, Executor, Parallel.RangeTask)}.  Each range draws its own
+	 * coefficients from {@code rnd}, so with a seeded {@code rnd} the parts depend on the order
+	 * the ranges happen to run in, and are reproducible only with a {@code null} {@code executor}.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @param executor The {@link Executor} to split ranges of the secret on, or {@code null} for the calling thread
+	 * @return An array of secret {@link Part}s
+	 */
+	public static PerBytePart[] splitPerByte(final byte[] secret, int totalParts, final int requiredParts, final Random rnd, Executor executor) {
 		InputValidation.begin()
 			.when(secret == null, "secret is null")
 			.when(totalParts < 1, "totalParts is less than 1")
@@ -92,35 +134,451 @@ public abstract class Secrets {
 			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
 			.when(rnd == null, "rnd is null")
 			.validate();
-		List<Integer> xs = new ArrayList<Integer>();
-		for(int i = 1; i < PerBytePart.MODULUS.intValue(); i++)
-			xs.add(i);
-		BigPoint[][] pts = new BigPoint[totalParts][secret.length];
-		BigInteger[] x = new BigInteger[totalParts];
-		for(int j = 0; j < x.length; j++)
-			x[j] = BigInteger.valueOf(xs.remove((int)(rnd.nextDouble() * xs.size())));
-		for(int i = 0; i < secret.length; i++) {
-			TermPolynomial poly = TermPolynomial.ONE.multiply(BigInteger.valueOf(0xFF & secret[i]));
-			for(int j = 0; j < requiredParts-1; j++)
-				poly = poly.add(TermPolynomial.ONE.multiply(BigInteger.valueOf((long)(PerBytePart.MODULUS.longValue() * rnd.nextDouble()))).powX(j+1));
-			poly = new TermPolynomial(poly.getTerms(), PerBytePart.MODULUS);
-			for(int j = 0; j < totalParts; j++) {
-				pts[j][i] = poly.p(x[j]);
+		return splitPerByte(secret, totalParts, requiredParts, rnd, executor, new byte[totalParts][]);
+	}
+	
+	/**
+	 * Split a secret by bytes without validating the arguments, reusing the Y buffers in {@code ys}
+	 * when they are already the right size and replacing them when they are not.
+	 */
+	static PerBytePart[] splitPerByte(final byte[] secret, int totalParts, final int requiredParts, final Random rnd, Executor executor, final byte[][] ys) {
+		final int[] x = PerByteField.xs(totalParts, rnd);
+		scratch(ys, totalParts, 1 + secret.length * 2);
+		Parallel.run(0, secret.length, MIN_PARALLEL_BYTES, executor, new Parallel.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				PerByteField.split(secret, from, to - from, x, requiredParts, new RandomCoefficients(rnd), ys, 1 + 2 * from);
 			}
-		}
+		});
 		PerBytePart[] parts = new PerBytePart[totalParts];
-		for(int j = 0; j < totalParts; j++) {
-			byte[] b = new byte[1 + secret.length * 2];
-			for(int i = 0; i < secret.length; i++) {
-				short v = pts[j][i].getY().shortValue();
-				b[2*i+1] = (byte)(v >>> 8);
-				b[2*i+2] = (byte) v;
+		for(int j = 0; j < totalParts; j++)
+			parts[j] = new PerBytePart(2, secret.length, requiredParts, new BigPoint(BigInteger.valueOf(x[j]), new BigInteger(ys[j])));
+		return parts;
+	}
+	
+	/**
+	 * Split a secret into a number of parts by treating the secret byte array as individual secrets
+	 * of 1 byte each, shared over GF(2^8).  Each part's Y value is the same size as the secret.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return An array of secret {@link GF256Part}s
+	 */
+	public static GF256Part[] splitGF256(byte[] secret, int totalParts, int requiredParts, Random rnd) {
+		return splitGF256(secret, totalParts, requiredParts, rnd, null);
+	}
+	
+	/**
+	 * Split a secret into a number of parts by treating the secret byte array as individual secrets
+	 * of 1 byte each, shared over GF(2^8).  Each part's Y value is the same size as the secret.
+	 * Ranges of the secret are split in parallel as for {@link #splitPerByte(byte[], int, int, Random, Executor)}.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @param executor The {@link Executor} to split ranges of the secret on, or {@code null} for the calling thread
+	 * @return An array of secret {@link GF256Part}s
+	 */
+	public static GF256Part[] splitGF256(final byte[] secret, int totalParts, final int requiredParts, final Random rnd, Executor executor) {
+		InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.when(totalParts < 1, "totalParts is less than 1")
+			.when(totalParts > GF256Part.MAX_PARTS, "totalParts is greater than " + GF256Part.MAX_PARTS)
+			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		return splitGF256(secret, totalParts, requiredParts, rnd, executor, new byte[totalParts][]);
+	}
+	
+	/**
+	 * Split a secret over GF(2^8) without validating the arguments, reusing the Y buffers in {@code ys}
+	 * when they are already the right size and replacing them when they are not.
+	 */
+	static GF256Part[] splitGF256(final byte[] secret, int totalParts, final int requiredParts, final Random rnd, Executor executor, final byte[][] ys) {
+		final int[] x = GF256.xs(totalParts, rnd);
+		scratch(ys, totalParts, 1 + secret.length);
+		Parallel.run(0, secret.length, MIN_PARALLEL_BYTES, executor, new Parallel.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				GF256.split(secret, from, to - from, x, requiredParts, new RandomCoefficients(rnd), ys, 1 + from);
+			}
+		});
+		GF256Part[] parts = new GF256Part[totalParts];
+		for(int j = 0; j < totalParts; j++)
+			parts[j] = new GF256Part(4, secret.length, requiredParts, new BigPoint(BigInteger.valueOf(x[j]), new BigInteger(ys[j])));
+		return parts;
+	}
+	
+	/**
+	 * Split a secret into a number of parts by cutting it into blocks of
+	 * {@link BlockPart#DEFAULT_BLOCK_SIZE} bytes, using {@link #splitBlocks(byte[], int, int, int, Random)}.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return An array of secret {@link BlockPart}s
+	 */
+	public static BlockPart[] splitBlocks(byte[] secret, int totalParts, int requiredParts, Random rnd) {
+		return splitBlocks(secret, totalParts, requiredParts, BlockPart.DEFAULT_BLOCK_SIZE, rnd);
+	}
+	
+	/**
+	 * Split a secret into a number of parts by cutting the secret byte array into blocks of
+	 * {@code blockSize} bytes, and treating each block as a separate Y coordinate.  Every block
+	 * uses the same well-known prime for its block size, so unlike {@link #splitMultibyte(byte[], int, int, Random)}
+	 * the cost of splitting grows linearly with the length of the secret.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param blockSize The number of secret bytes in each block
+	 * @param rnd A source of random
+	 * @return An array of secret {@link BlockPart}s
+	 */
+	public static BlockPart[] splitBlocks(byte[] secret, int totalParts, int requiredParts, int blockSize, Random rnd) {
+		return splitBlocks(secret, totalParts, requiredParts, blockSize, rnd, null);
+	}
+	
+	/**
+	 * Split a secret into a number of parts by cutting the secret byte array into blocks of
+	 * {@code blockSize} bytes, and treating each block as a separate Y coordinate.  Every block
+	 * uses the same well-known prime for its block size, so unlike {@link #splitMultibyte(byte[], int, int, Random)}
+	 * the cost of splitting grows linearly with the length of the secret.
+	 * Ranges of the secret are split in parallel as for {@link #splitPerByte(byte[], int, int, Random, Executor)}.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param blockSize The number of secret bytes in each block
+	 * @param rnd A source of random
+	 * @param executor The {@link Executor} to split ranges of the secret on, or {@code null} for the calling thread
+	 * @return An array of secret {@link BlockPart}s
+	 */
+	public static BlockPart[] splitBlocks(final byte[] secret, int totalParts, final int requiredParts, final int blockSize, final Random rnd, Executor executor) {
+		InputValidation iv = InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.when(totalParts < 1, "totalParts is less than 1")
+			.when(requiredParts < 1, "requiredParts is less than 1")
+			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
+			.when(blockSize < 1, "blockSize is less than 1")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		BigInteger prime = BlockField.prime(blockSize);
+		iv.when(BigInteger.valueOf(totalParts).compareTo(prime) >= 0, "totalParts is too large for blockSize").validate();
+		return splitBlocks(secret, BigIntegers.range(1, totalParts + 1), requiredParts, blockSize, prime, rnd, executor, new byte[totalParts][]);
+	}
+	
+	/**
+	 * Split a secret into blocks at the X coordinates {@code x} without validating the arguments,
+	 * reusing the Y buffers in {@code ys} when they are already the right size and replacing them when they are not.
+	 */
+	static BlockPart[] splitBlocks(final byte[] secret, final BigInteger[] x, final int requiredParts, final int blockSize, final BigInteger prime, final Random rnd, Executor executor, final byte[][] ys) {
+		int totalParts = x.length;
+		int blocks = BlockField.blocks(secret.length, blockSize);
+		scratch(ys, totalParts, 1 + blocks * (blockSize + 1));
+		Parallel.run(0, blocks, Math.max(1, MIN_PARALLEL_BYTES / blockSize), executor, new Parallel.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				BlockField.split(secret, blockSize, from, to, x, requiredParts, prime, new RandomCoefficients(rnd), ys, 1);
+			}
+		});
+		BlockPart[] parts = new BlockPart[totalParts];
+		for(int j = 0; j < totalParts; j++)
+			parts[j] = new BlockPart(5, secret.length, requiredParts, prime, blockSize, new BigPoint(x[j], new BigInteger(ys[j])));
+		return parts;
+	}
+	
+	/**
+	 * Disperse a secret into a number of parts, each about {@code 1 / requiredParts} of the size
+	 * of the secret, using blocks of {@link BlockPart#DEFAULT_BLOCK_SIZE} bytes.
+	 * @param secret The secret to disperse
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @return An array of secret {@link DispersalPart}s
+	 * @see #splitDispersal(byte[], int, int, int)
+	 */
+	public static DispersalPart[] splitDispersal(byte[] secret, int totalParts, int requiredParts) {
+		return splitDispersal(secret, totalParts, requiredParts, BlockPart.DEFAULT_BLOCK_SIZE);
+	}
+	
+	/**
+	 * Disperse a secret into a number of parts, each about {@code 1 / requiredParts} of the size
+	 * of the secret, using Rabin's information dispersal over the prime for {@code blockSize}.
+	 * Any {@code requiredParts} parts reconstruct the secret, but unlike the other schemes
+	 * fewer parts are <b>not</b> guaranteed to reveal nothing about it; dispersal
+	 * should only be used for secrets that are already encrypted, for example by
+	 * {@link #splitEncrypted(byte[], int, int, Random)}.
+	 * @param secret The secret to disperse
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param blockSize The number of secret bytes in each block
+	 * @return An array of secret {@link DispersalPart}s
+	 */
+	public static DispersalPart[] splitDispersal(byte[] secret, int totalParts, int requiredParts, int blockSize) {
+		return splitDispersal(secret, totalParts, requiredParts, requiredParts, blockSize, null);
+	}
+	
+	/**
+	 * Split a secret with a ramp scheme, using blocks of {@link BlockPart#DEFAULT_BLOCK_SIZE} bytes
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param privacyThreshold The number of parts that are guaranteed to reveal nothing about the secret
+	 * @param rnd A source of random
+	 * @return An array of secret {@link DispersalPart}s
+	 * @see #splitRamp(byte[], int, int, int, int, Random)
+	 */
+	public static DispersalPart[] splitRamp(byte[] secret, int totalParts, int requiredParts, int privacyThreshold, Random rnd) {
+		return splitRamp(secret, totalParts, requiredParts, privacyThreshold, BlockPart.DEFAULT_BLOCK_SIZE, rnd);
+	}
+	
+	/**
+	 * Split a secret with a ramp scheme: any {@code requiredParts} parts reconstruct the secret,
+	 * any {@code privacyThreshold} parts reveal nothing about it, and each part is about
+	 * {@code 1 / (requiredParts - privacyThreshold)} of the size of the secret.  Coalitions
+	 * of sizes in between learn partial information.
+	 * With {@code privacyThreshold == requiredParts - 1} this is threshold sharing, and with
+	 * {@code privacyThreshold == 0} it is {@link #splitDispersal(byte[], int, int, int)}.
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param privacyThreshold The number of parts that are guaranteed to reveal nothing about the secret
+	 * @param blockSize The number of secret bytes in each block
+	 * @param rnd A source of random
+	 * @return An array of secret {@link DispersalPart}s
+	 */
+	public static DispersalPart[] splitRamp(byte[] secret, int totalParts, int requiredParts, int privacyThreshold, int blockSize, Random rnd) {
+		InputValidation.begin()
+			.when(privacyThreshold < 0, "privacyThreshold is less than 0")
+			.when(privacyThreshold >= requiredParts, "privacyThreshold is not less than requiredParts")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		return splitDispersal(secret, totalParts, requiredParts, requiredParts - privacyThreshold, blockSize, rnd);
+	}
+	
+	/**
+	 * Split several secrets of the same length together, using blocks of {@link BlockPart#DEFAULT_BLOCK_SIZE} bytes
+	 * @param secrets The secrets to split, all the same length
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secrets
+	 * @param rnd A source of random
+	 * @return An array of secret {@link DispersalPart}s, each carrying a share of every secret
+	 * @see #splitPacked(byte[][], int, int, int, Random)
+	 */
+	public static DispersalPart[] splitPacked(byte[][] secrets, int totalParts, int requiredParts, Random rnd) {
+		return splitPacked(secrets, totalParts, requiredParts, BlockPart.DEFAULT_BLOCK_SIZE, rnd);
+	}
+	
+	/**
+	 * Split several secrets of the same length together by packing them into one polynomial per
+	 * stripe: secret {@code i} is the value of the polynomial at {@code -(i+1)}, and the remaining
+	 * {@code requiredParts - secrets.length} defining values are random.  Each part carries a share of every
+	 * secret, so splitting {@code l} secrets costs about as much as splitting one.<p>
+	 * 
+	 * Packing trades secrecy for size: any {@code requiredParts} parts reconstruct every secret,
+	 * but only coalitions of at most {@code requiredParts - secrets.length} parts are guaranteed to learn nothing.
+	 * @param secrets The secrets to split, all the same length
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secrets, greater than {@code secrets.length}
+	 * @param blockSize The number of secret bytes in each block
+	 * @param rnd A source of random
+	 * @return An array of secret {@link DispersalPart}s, each carrying a share of every secret
+	 */
+	public static DispersalPart[] splitPacked(byte[][] secrets, int totalParts, int requiredParts, int blockSize, Random rnd) {
+		InputValidation iv = InputValidation.begin()
+			.when(secrets == null, "secrets is null")
+			.when(rnd == null, "rnd is null")
+			.validate()
+			.when(secrets.length == 0, "secrets is empty")
+			.when(secrets.length >= requiredParts, "requiredParts is not greater than the number of secrets")
+			.validate();
+		for(byte[] secret : secrets) {
+			iv.when(secret == null, "secret is null").validate();
+			iv.when(secret.length != secrets[0].length, "secrets have different lengths");
+		}
+		iv.validate();
+		byte[] packed = new byte[secrets.length * secrets[0].length];
+		for(int i = 0; i < secrets.length; i++)
+			System.arraycopy(secrets[i], 0, packed, i * secrets[0].length, secrets[i].length);
+		return splitDispersal(packed, totalParts, requiredParts, secrets.length, blockSize, rnd);
+	}
+	
+	/**
+	 * Split a secret into {@link DispersalPart}s, with {@code dataSymbols} blocks of the secret
+	 * and {@code requiredParts - dataSymbols} random values defining each stripe polynomial
+	 * @param secret The secret to split
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct the secret
+	 * @param dataSymbols The number of secret blocks in each stripe
+	 * @param blockSize The number of secret bytes in each block
+	 * @param rnd A source of random, which may be {@code null} if {@code dataSymbols == requiredParts}
+	 * @return An array of secret {@link DispersalPart}s
+	 */
+	static DispersalPart[] splitDispersal(byte[] secret, int totalParts, int requiredParts, int dataSymbols, int blockSize, Random rnd) {
+		InputValidation iv = InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.when(totalParts < 1, "totalParts is less than 1")
+			.when(requiredParts < 1, "requiredParts is less than 1")
+			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
+			.when(blockSize < 1, "blockSize is less than 1")
+			.when(rnd == null && dataSymbols < requiredParts, "rnd is null")
+			.validate();
+		BigInteger prime = BlockField.prime(blockSize);
+		iv.when(BigInteger.valueOf(totalParts).compareTo(prime.subtract(BigInteger.valueOf(requiredParts))) >= 0, "totalParts is too large for blockSize").validate();
+		BigInteger[] x = BigIntegers.range(1, totalParts + 1);
+		BigInteger[][] weights = DispersalField.weights(DispersalField.definingXs(requiredParts, prime), x, prime);
+		int stripes = DispersalField.stripes(secret.length, dataSymbols, blockSize);
+		byte[][] ys = new byte[totalParts][1 + stripes * (blockSize + 1)];
+		DispersalField.split(secret, blockSize, dataSymbols, 0, stripes, weights, prime, new RandomCoefficients(rnd), ys, 1);
+		DispersalPart[] parts = new DispersalPart[totalParts];
+		for(int j = 0; j < totalParts; j++)
+			parts[j] = new DispersalPart(6, secret.length, requiredParts, prime, blockSize, dataSymbols, new BigPoint(x[j], new BigInteger(ys[j])));
+		return parts;
+	}
+	
+	/**
+	 * Split many secrets into parts under the same policy, as {@link #split(byte[], int, int, Random)} would,
+	 * but using one prime for all secrets of the same length and the same precomputed powers of
+	 * the X coordinates {@code 1..totalParts} for every polynomial.
+	 * @param secrets The secrets to split
+	 * @param totalParts The number of parts to create for each secret
+	 * @param requiredParts The number of parts required to reconstruct each secret
+	 * @param rnd A source of random
+	 * @return The parts grouped by holder: {@code parts[j][i]} is the part of {@code secrets[i]} for holder {@code j}
+	 */
+	public static Part[][] split(byte[][] secrets, int totalParts, int requiredParts, Random rnd) {
+		validateBatch(secrets, totalParts, requiredParts, rnd, Integer.MAX_VALUE);
+		BigInteger[] x = BigIntegers.range(1, totalParts + 1);
+		int degree = Math.max(requiredParts, 1);
+		Map<Integer, BigInteger> primes = new HashMap<Integer, BigInteger>();
+		Map<Integer, BigInteger[][]> powers = new HashMap<Integer, BigInteger[][]>();
+		BigInteger[] coefficients = new BigInteger[degree];
+		RandomCoefficients random = new RandomCoefficients(rnd);
+		Part[][] parts = new Part[totalParts][secrets.length];
+		for(int i = 0; i < secrets.length; i++) {
+			int secretBits = secrets[i].length * 8;
+			BigInteger prime = primes.get(secretBits);
+			if(prime == null) {
+				prime = BigInteger.probablePrime(secretBits + 1, rnd);
+				BigInteger[][] pow = new BigInteger[totalParts][degree];
+				for(int j = 0; j < totalParts; j++) {
+					pow[j][0] = BigInteger.ONE;
+					for(int c = 1; c < degree; c++)
+						pow[j][c] = pow[j][c - 1].multiply(x[j]).mod(prime);
+				}
+				primes.put(secretBits, prime);
+				powers.put(secretBits, pow);
+			}
+			BigInteger[][] pow = powers.get(secretBits);
+			coefficients[0] = new BigInteger(1, secrets[i]);
+			for(int c = 1; c < degree; c++)
+				coefficients[c] = random.nextBits(secretBits);
+			for(int j = 0; j < totalParts; j++) {
+				BigInteger y = BigInteger.ZERO;
+				for(int c = 0; c < degree; c++)
+					y = y.add(coefficients[c].multiply(pow[j][c]));
+				parts[j][i] = new Part(secrets[i].length, requiredParts, prime, new BigPoint(x[j], y.mod(prime)));
 			}
-			parts[j] = new PerBytePart(2, secret.length, requiredParts, new BigPoint(x[j], new BigInteger(b)));
 		}
 		return parts;
 	}
 	
+	/**
+	 * Split many secrets into parts under the same policy, as {@link #splitPerByte(byte[], int, int, Random)} would,
+	 * choosing the X coordinates and computing their powers once for the whole batch.
+	 * Each holder has the same X coordinate for every secret.
+	 * @param secrets The secrets to split
+	 * @param totalParts The number of parts to create for each secret
+	 * @param requiredParts The number of parts required to reconstruct each secret
+	 * @param rnd A source of random
+	 * @return The parts grouped by holder: {@code parts[j][i]} is the part of {@code secrets[i]} for holder {@code j}
+	 */
+	public static PerBytePart[][] splitPerByte(byte[][] secrets, int totalParts, int requiredParts, Random rnd) {
+		validateBatch(secrets, totalParts, requiredParts, rnd, PerBytePart.MAX_PARTS);
+		int[] x = PerByteField.xs(totalParts, rnd);
+		int[][] powers = PerByteField.powers(x, requiredParts);
+		RandomCoefficients coefficients = new RandomCoefficients(rnd);
+		PerBytePart[][] parts = new PerBytePart[totalParts][secrets.length];
+		for(int i = 0; i < secrets.length; i++) {
+			byte[][] ys = new byte[totalParts][1 + secrets[i].length * 2];
+			PerByteField.split(secrets[i], 0, secrets[i].length, powers, coefficients, ys, 1);
+			for(int j = 0; j < totalParts; j++)
+				parts[j][i] = new PerBytePart(2, secrets[i].length, requiredParts, new BigPoint(BigInteger.valueOf(x[j]), new BigInteger(ys[j])));
+		}
+		return parts;
+	}
+	
+	/**
+	 * Split many secrets into parts under the same policy, as {@link #splitGF256(byte[], int, int, Random)} would,
+	 * choosing the X coordinates once for the whole batch.
+	 * Each holder has the same X coordinate for every secret.
+	 * @param secrets The secrets to split
+	 * @param totalParts The number of parts to create for each secret
+	 * @param requiredParts The number of parts required to reconstruct each secret
+	 * @param rnd A source of random
+	 * @return The parts grouped by holder: {@code parts[j][i]} is the part of {@code secrets[i]} for holder {@code j}
+	 */
+	public static GF256Part[][] splitGF256(byte[][] secrets, int totalParts, int requiredParts, Random rnd) {
+		validateBatch(secrets, totalParts, requiredParts, rnd, GF256Part.MAX_PARTS);
+		int[] x = GF256.xs(totalParts, rnd);
+		RandomCoefficients coefficients = new RandomCoefficients(rnd);
+		GF256Part[][] parts = new GF256Part[totalParts][secrets.length];
+		for(int i = 0; i < secrets.length; i++) {
+			byte[][] ys = new byte[totalParts][1 + secrets[i].length];
+			GF256.split(secrets[i], 0, secrets[i].length, x, requiredParts, coefficients, ys, 1);
+			for(int j = 0; j < totalParts; j++)
+				parts[j][i] = new GF256Part(4, secrets[i].length, requiredParts, new BigPoint(BigInteger.valueOf(x[j]), new BigInteger(ys[j])));
+		}
+		return parts;
+	}
+	
+	/**
+	 * Validate the arguments of a batch split
+	 * @param secrets The secrets to split
+	 * @param totalParts The number of parts to create for each secret
+	 * @param requiredParts The number of parts required to reconstruct each secret
+	 * @param rnd A source of random
+	 * @param maxParts The maximum number of parts of the scheme
+	 */
+	private static void validateBatch(byte[][] secrets, int totalParts, int requiredParts, Random rnd, int maxParts) {
+		InputValidation iv = InputValidation.begin()
+			.when(secrets == null, "secrets is null")
+			.when(totalParts < 1, "totalParts is less than 1")
+			.when(totalParts > maxParts, "totalParts is greater than " + maxParts)
+			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		for(byte[] secret : secrets)
+			iv.when(secret == null, "secret is null");
+		iv.validate();
+	}
+	
+	/**
+	 * Split a secret by encrypting it once with AES-GCM under a random 256-bit key
+	 * and splitting only the key, using {@link #splitGF256(byte[], int, int, Random)}.
+	 * Every holder shares the one ciphertext and keeps a key part of {@link EncryptedSecret#KEY_BYTES} bytes.
+	 * @param secret The secret to split
+	 * @param totalParts The number of key parts to create
+	 * @param requiredParts The number of key parts required to decrypt the secret
+	 * @param rnd A source of random for the key, nonce and key parts, normally a {@link java.security.SecureRandom}
+	 * @return The ciphertext and key parts
+	 */
+	public static EncryptedSecret splitEncrypted(byte[] secret, int totalParts, int requiredParts, Random rnd) {
+		InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		byte[] key = new byte[EncryptedSecret.KEY_BYTES];
+		byte[] nonce = new byte[EncryptedSecret.NONCE_BYTES];
+		rnd.nextBytes(key);
+		rnd.nextBytes(nonce);
+		try {
+			GF256Part[] keyParts = splitGF256(key, totalParts, requiredParts, rnd);
+			return new EncryptedSecret(EncryptedSecret.encrypt(key, nonce, secret), keyParts);
+		} finally {
+			Arrays.fill(key, (byte) 0);
+		}
+	}
+	
 	/**
 	 * Join {@link Part}s of a secret back into a byte array.
 	 * Calls {@link Part#join(Part...)} on the first element in
@@ -136,12 +594,232 @@ public abstract class Secrets {
 		return parts[0].join(Arrays.copyOfRange(parts, 1, parts.length));
 	}
 
+	/**
+	 * Join {@link Part}s of a secret into a buffer, without allocating an array for the secret.
+	 * Uses the join for the kind of the first part, as {@link #join(Part[])} does.
+	 * @param parts The array of parts to join, of length at least one
+	 * @param secret The buffer for the reconstructed secret
+	 * @param off The offset in {@code secret} to write the reconstructed secret at
+	 * @return The length of the reconstructed secret
+	 */
+	public static int join(Part[] parts, byte[] secret, int off) {
+		length(parts);
+		return join(parts, secret, off, new byte[parts.length][]);
+	}
+	
+	/**
+	 * Join {@link Part}s of a secret into a buffer, starting at its position.
+	 * On return the position of {@code secret} is after the reconstructed secret.
+	 * A buffer without an accessible array, such as a direct buffer, is filled from a
+	 * temporary array holding the whole secret, which is cleared once it is copied;
+	 * use a {@link Joiner} to reuse that array between secrets.
+	 * @param parts The array of parts to join, of length at least one
+	 * @param secret The buffer for the reconstructed secret
+	 * @return The length of the reconstructed secret
+	 */
+	public static int join(Part[] parts, ByteBuffer secret) {
+		int length = length(parts);
+		InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.validate()
+			.when(secret.remaining() < length, "secret buffer is too small")
+			.validate();
+		if(secret.hasArray()) {
+			join(parts, secret.array(), secret.arrayOffset() + secret.position());
+			secret.position(secret.position() + length);
+		} else {
+			byte[] s = join(parts);
+			secret.put(s);
+			Arrays.fill(s, (byte) 0);
+		}
+		return length;
+	}
+	
+	/**
+	 * Join {@link Part}s of a secret into a buffer using reusable buffers for the Y values of the parts
+	 * @param parts The array of parts to join, of length at least one
+	 * @param secret The buffer for the reconstructed secret
+	 * @param off The offset in {@code secret} to write the reconstructed secret at
+	 * @param ys Reusable buffers for the Y values of the parts, replaced when too short
+	 * @return The length of the reconstructed secret
+	 */
+	static int join(Part[] parts, byte[] secret, int off, byte[][] ys) {
+		validateParts(parts);
+		Part p0 = parts[0];
+		if(p0 instanceof PerBytePart)
+			return joinPerByte(Arrays.copyOf(parts, parts.length, PerBytePart[].class), secret, off, ys, null);
+		if(p0 instanceof GF256Part)
+			return joinGF256(Arrays.copyOf(parts, parts.length, GF256Part[].class), secret, off, ys, null);
+		if(p0 instanceof BlockPart)
+			return joinBlocks(Arrays.copyOf(parts, parts.length, BlockPart[].class), secret, off, ys, null);
+		if(p0.getClass() == Part.class)
+			return joinMultibyte(parts, secret, off);
+		byte[] s = join(parts);
+		validateBuffer(secret, off, s.length);
+		System.arraycopy(s, 0, secret, off, s.length);
+		return s.length;
+	}
+	
+	/**
+	 * Join many secrets whose parts are held by the same holders, such as the result of
+	 * {@link #split(byte[][], int, int, Random)}.  Secrets are grouped by the kind of their parts,
+	 * their length, modulus and X coordinates, and the Lagrange weights are computed and the
+	 * parts checked once per group; every secret in a group is then recovered by a weighted sum.
+	 * Secrets with other kinds of parts, such as {@link DispersalPart}s, are joined one at a time.
+	 * @param parts The parts grouped by holder: {@code parts[j][i]} is the part of secret {@code i} for holder {@code j}
+	 * @return The recovered secrets
+	 */
+	public static byte[][] join(Part[][] parts) {
+		InputValidation iv = InputValidation.begin()
+			.when(parts == null, "parts array is null")
+			.when(parts != null && parts.length == 0, "parts array is empty")
+			.validate();
+		for(Part[] p : parts)
+			iv.when(p == null, "parts array contains null").validate();
+		for(Part[] p : parts)
+			iv.when(p.length != parts[0].length, "holders have different numbers of parts");
+		iv.validate();
+		
+		Map<List<Object>, Object> weights = new HashMap<List<Object>, Object>();
+		byte[][] secrets = new byte[parts[0].length][];
+		Part[] column = new Part[parts.length];
+		byte[][] ys = new byte[parts.length][];
+		for(int i = 0; i < secrets.length; i++) {
+			for(int j = 0; j < parts.length; j++) {
+				column[j] = parts[j][i];
+				iv.when(column[j] == null, "parts array contains null").validate();
+			}
+			Class<?> kind = column[0].getClass();
+			if(kind != Part.class && kind != PerBytePart.class && kind != GF256Part.class && kind != BlockPart.class) {
+				secrets[i] = join(column);
+				continue;
+			}
+			List<Object> key = groupKey(column);
+			Part[] chosen = select(column);
+			if(chosen != column)
+				key = groupKey(chosen);
+			Object w = weights.get(key);
+			if(w == null) {
+				w = groupWeights(chosen);
+				weights.put(key, w);
+			}
+			secrets[i] = groupJoin(chosen, w, ys);
+		}
+		return secrets;
+	}
+	
+	/**
+	 * Return the key that groups a secret with the other secrets that can be joined
+	 * with the same Lagrange weights, checking that the parts of the secret agree
+	 * @param parts The parts of one secret
+	 * @return The kind, length, number of required parts, modulus, block size and X coordinates of the parts
+	 */
+	private static List<Object> groupKey(Part[] parts) {
+		InputValidation iv = InputValidation.begin();
+		Part p0 = parts[0];
+		List<Object> key = new ArrayList<Object>(parts.length + 5);
+		key.add(p0.getClass());
+		key.add(p0.getLength());
+		key.add(p0.getRequiredParts());
+		key.add(p0.getModulus());
+		key.add(p0 instanceof BlockPart ? ((BlockPart) p0).getBlockSize() : 0);
+		for(Part part : parts) {
+			iv.when(part.getClass() != p0.getClass(), "inconsistent kinds of parts");
+			iv.when(part.getLength() != p0.getLength(), "inconsistent secret lengths");
+			iv.when(part.getRequiredParts() != p0.getRequiredParts(), "inconsistent number of required parts");
+			iv.when(!part.getModulus().equals(p0.getModulus()), "inconsistent moduli");
+			if(part instanceof BlockPart)
+				iv.when(((BlockPart) part).getBlockSize() != ((BlockPart) p0).getBlockSize(), "inconsistent block sizes");
+			key.add(part.getPoint().getX());
+		}
+		iv.validate()
+			.when(parts.length < p0.getRequiredParts(), p0.getRequiredParts() + " parts required but " + parts.length + " parts provided")
+			.validate();
+		return key;
+	}
+	
+	/**
+	 * Compute the Lagrange weights at zero for a group of secrets
+	 * @param parts The parts of one secret in the group
+	 * @return The weights, as {@code int[]} for {@link PerBytePart}s and {@link GF256Part}s
+	 * or {@code BigInteger[]} otherwise
+	 */
+	private static Object groupWeights(Part[] parts) {
+		InputValidation iv = InputValidation.begin();
+		if(parts[0] instanceof PerBytePart || parts[0] instanceof GF256Part) {
+			boolean perByte = parts[0] instanceof PerBytePart;
+			int[] x = new int[parts.length];
+			for(int i = 0; i < parts.length; i++) {
+				BigInteger bx = parts[i].getPoint().getX();
+				if(perByte)
+					bx = bx.mod(PerBytePart.MODULUS);
+				else
+					iv.when(bx.signum() <= 0 || bx.bitLength() > 8, "X coordinate out of range").validate();
+				x[i] = bx.intValue();
+			}
+			int[] weights = perByte ? PerByteField.lagrangeWeights(x, 0) : GF256.lagrangeWeights(x, 0);
+			iv.when(weights == null, "duplicate X coordinates").validate();
+			return weights;
+		}
+		BigInteger[] x = new BigInteger[parts.length];
+		for(int i = 0; i < parts.length; i++)
+			x[i] = parts[i].getPoint().getX();
+		return ModularPolynomial.lagrangeWeights(x, BigInteger.ZERO, parts[0].getModulus());
+	}
+	
+	/**
+	 * Recover one secret of a group from its parts and the weights of the group
+	 * @param parts The parts of the secret
+	 * @param weights The weights from {@link #groupWeights(Part[])}
+	 * @param ys Reusable buffers for the Y values of the parts, replaced when too short
+	 * @return The recovered secret
+	 */
+	static byte[] groupJoin(Part[] parts, Object weights, byte[][] ys) {
+		int length = parts[0].getLength();
+		byte[] secret = new byte[length];
+		if(parts[0] instanceof PerBytePart) {
+			for(int i = 0; i < parts.length; i++)
+				ys[i] = toBytes(parts[i].getPoint().getY(), length * 2, ys[i]);
+			PerByteField.join(ys, 0, (int[]) weights, secret, 0, length);
+		} else if(parts[0] instanceof GF256Part) {
+			for(int i = 0; i < parts.length; i++)
+				ys[i] = toBytes(parts[i].getPoint().getY(), length, ys[i]);
+			GF256.join(ys, 0, (int[]) weights, secret, 0, length);
+		} else if(parts[0] instanceof BlockPart) {
+			int blockSize = ((BlockPart) parts[0]).getBlockSize();
+			int blocks = BlockField.blocks(length, blockSize);
+			for(int i = 0; i < parts.length; i++)
+				ys[i] = toBytes(parts[i].getPoint().getY(), blocks * (blockSize + 1), ys[i]);
+			BlockField.join(ys, 0, (BigInteger[]) weights, parts[0].getModulus(), blockSize, 0, blocks, secret, 0, length);
+		} else {
+			BigInteger[] w = (BigInteger[]) weights;
+			BigInteger s = BigInteger.ZERO;
+			for(int i = 0; i < parts.length; i++)
+				s = s.add(w[i].multiply(parts[i].getPoint().getY()));
+			secret = toBytes(s.mod(parts[0].getModulus()), length);
+		}
+		return secret;
+	}
+	
 	/**
 	 * Recover a secret from an array of {@link Part}s
 	 * @param parts The array of secret parts
 	 * @return The recovered secret
 	 */
 	public static byte[] joinMultibyte(Part[] parts) {
+		byte[] secret = new byte[length(parts)];
+		joinMultibyte(parts, secret, 0);
+		return secret;
+	}
+	
+	/**
+	 * Recover a secret from an array of {@link Part}s into a buffer
+	 * @param parts The array of secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @return The length of the recovered secret
+	 */
+	public static int joinMultibyte(Part[] parts, byte[] secret, int off) {
 		InputValidation iv = InputValidation.begin()
 			.when(parts == null, "parts array is null")
 			.when(parts != null && parts.length == 0, "parts array is empty")
@@ -156,6 +834,9 @@ public abstract class Secrets {
 			prime = (prime == null ? part.getModulus() : prime);
 
 			iv.when(part instanceof PerBytePart, "perbyte parts cannot be used for multibyte join");
+			iv.when(part instanceof GF256Part, "GF(256) parts cannot be used for multibyte join");
+			iv.when(part instanceof BlockPart, "block parts cannot be used for multibyte join");
+			iv.when(part instanceof DispersalPart, "dispersal parts cannot be used for multibyte join");
 			iv.when(part.getLength() != secretLength, "inconsistent secret lengths");
 			iv.when(part.getRequiredParts() != requiredParts, "inconsistent number of required parts");
 			iv.when(!part.getModulus().equals(prime), "inconsistent moduli");
@@ -163,16 +844,18 @@ public abstract class Secrets {
 		iv.validate()
 			.when(parts.length < requiredParts, requiredParts + " parts required but " + parts.length + " parts provided")
 			.validate();
+		parts = select(parts);
+		validateBuffer(secret, off, secretLength);
 		
-		BigPoint[] pts = new BigPoint[parts.length];
-		for(int i = 0; i < pts.length; i++) {
-			pts[i] = parts[i].getPoint();
-		}
-		
-		TermPolynomial poly = new TermPolynomial(pts, prime);
-		byte[] secret = poly.y(BigInteger.ZERO).getNumerator().mod(prime).add(prime).mod(prime).toByteArray();
-		byte[] ret = Arrays.copyOfRange(secret, secret.length - secretLength, secret.length);
-		return ret;
+		BigInteger[] x = new BigInteger[parts.length];
+		for(int i = 0; i < x.length; i++)
+			x[i] = parts[i].getPoint().getX();
+		BigInteger[] weights = ModularPolynomial.lagrangeWeights(x, BigInteger.ZERO, prime);
+		BigInteger s = BigInteger.ZERO;
+		for(int i = 0; i < parts.length; i++)
+			s = s.add(weights[i].multiply(parts[i].getPoint().getY()));
+		BlockField.put(s.mod(prime), secret, off, secretLength);
+		return secretLength;
 	}
 
 	/**
@@ -181,14 +864,50 @@ public abstract class Secrets {
 	 * @return The recovered secret
 	 */
 	public static byte[] joinPerByte(PerBytePart[] parts) {
-		InputValidation iv = InputValidation.begin()
-				.when(parts == null, "parts array is null")
-				.when(parts != null && parts.length == 0, "parts array is empty")
-				.validate();
+		return joinPerByte(parts, null);
+	}
+	
+	/**
+	 * Recover a per-byte secret from an array of {@link PerBytePart}s.
+	 * Ranges of the secret are joined in parallel on {@code executor} as described by
+	 * {@link Parallel#run(int, int, int, Executor, Parallel.RangeTask)}.
+	 * @param parts The secret parts
+	 * @param executor The {@link Executor} to join ranges of the secret on, or {@code null} for the calling thread
+	 * @return The recovered secret
+	 */
+	public static byte[] joinPerByte(PerBytePart[] parts, Executor executor) {
+		byte[] secret = new byte[length(parts)];
+		joinPerByte(parts, secret, 0, new byte[parts.length][], executor);
+		return secret;
+	}
+	
+	/**
+	 * Recover a per-byte secret from an array of {@link PerBytePart}s into a buffer
+	 * @param parts The secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @return The length of the recovered secret
+	 */
+	public static int joinPerByte(PerBytePart[] parts, byte[] secret, int off) {
+		InputValidation.begin().when(parts == null, "parts array is null").validate();
+		return joinPerByte(parts, secret, off, new byte[parts.length][], null);
+	}
+	
+	/**
+	 * Recover a per-byte secret from an array of {@link PerBytePart}s into a buffer
+	 * @param parts The secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @param ys Reusable buffers for the Y values of the parts, replaced when too short
+	 * @param executor The {@link Executor} to join ranges of the secret on, or {@code null} for the calling thread
+	 * @return The length of the recovered secret
+	 */
+	static int joinPerByte(PerBytePart[] parts, final byte[] secret, final int off, final byte[][] ys, Executor executor) {
+		InputValidation iv = InputValidation.begin()
+				.when(parts == null, "parts array is null")
+				.when(parts != null && parts.length == 0, "parts array is empty")
+				.validate();
 			
-		Part.PublicSecretPart pub = parts[0].getPublicPart();
-		byte[] secret = new byte[pub.getLength()];
-		BigPoint[][] pts = new BigPoint[secret.length][parts.length];
 		Integer secretLength = null;
 		Integer requiredParts = null;
 		for(Part part : parts) {
@@ -203,25 +922,975 @@ public abstract class Secrets {
 		iv.validate()
 			.when(parts.length < requiredParts, requiredParts + " parts required but " + parts.length + " parts provided")
 			.validate();
+		parts = select(parts);
+		validateBuffer(secret, off, secretLength);
 		
+		int[] x = new int[parts.length];
 		for(int i = 0; i < parts.length; i++) {
-			byte[] b = parts[i].getPrivatePart().getPoint().getY().toByteArray();
-			byte[] pb = new byte[secret.length * 2];
-			if(b.length > pb.length)
-				pb = Arrays.copyOfRange(b, b.length - pb.length, b.length);
-			else
-				System.arraycopy(b, 0, pb, pb.length - b.length, b.length);
-			for(int j = 0; j < secret.length; j++)
-				pts[j][i] = new BigPoint(parts[i].getPrivatePart().getPoint().getX(), BigInteger.valueOf(((0xFF & pb[2*j]) << 8) | (0xFF & pb[2*j+1])));
+			x[i] = parts[i].getPoint().getX().mod(PerBytePart.MODULUS).intValue();
+			ys[i] = toBytes(parts[i].getPoint().getY(), secretLength * 2, ys[i]);
+		}
+		final int[] weights = PerByteField.lagrangeWeights(x, 0);
+		iv.when(weights == null, "duplicate X coordinates").validate();
+		
+		Parallel.run(0, secretLength, MIN_PARALLEL_BYTES, executor, new Parallel.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				PerByteField.join(ys, 2 * from, weights, secret, off + from, to - from);
+			}
+		});
+		return secretLength;
+	}
+	
+	/**
+	 * Recover a GF(2^8) secret from an array of {@link GF256Part}s
+	 * @param parts The secret parts
+	 * @return The recovered secret
+	 */
+	public static byte[] joinGF256(GF256Part[] parts) {
+		return joinGF256(parts, null);
+	}
+	
+	/**
+	 * Recover a GF(2^8) secret from an array of {@link GF256Part}s.
+	 * Ranges of the secret are joined in parallel as for {@link #joinPerByte(PerBytePart[], Executor)}.
+	 * @param parts The secret parts
+	 * @param executor The {@link Executor} to join ranges of the secret on, or {@code null} for the calling thread
+	 * @return The recovered secret
+	 */
+	public static byte[] joinGF256(GF256Part[] parts, Executor executor) {
+		byte[] secret = new byte[length(parts)];
+		joinGF256(parts, secret, 0, new byte[parts.length][], executor);
+		return secret;
+	}
+	
+	/**
+	 * Recover a GF(2^8) secret from an array of {@link GF256Part}s into a buffer
+	 * @param parts The secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @return The length of the recovered secret
+	 */
+	public static int joinGF256(GF256Part[] parts, byte[] secret, int off) {
+		InputValidation.begin().when(parts == null, "parts array is null").validate();
+		return joinGF256(parts, secret, off, new byte[parts.length][], null);
+	}
+	
+	/**
+	 * Recover a GF(2^8) secret from an array of {@link GF256Part}s into a buffer
+	 * @param parts The secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @param ys Reusable buffers for the Y values of the parts, replaced when too short
+	 * @param executor The {@link Executor} to join ranges of the secret on, or {@code null} for the calling thread
+	 * @return The length of the recovered secret
+	 */
+	static int joinGF256(GF256Part[] parts, final byte[] secret, final int off, final byte[][] ys, Executor executor) {
+		InputValidation iv = InputValidation.begin()
+				.when(parts == null, "parts array is null")
+				.when(parts != null && parts.length == 0, "parts array is empty")
+				.validate();
+			
+		Integer secretLength = null;
+		Integer requiredParts = null;
+		for(Part part : parts) {
+			secretLength = (secretLength == null ? part.getLength() : secretLength);
+			requiredParts = (requiredParts == null ? part.getRequiredParts() : requiredParts);
+
+			iv.when(!(part instanceof GF256Part), "other parts cannot be used for GF(256) join");
+			iv.when(part.getLength() != secretLength, "inconsistent secret lengths");
+			iv.when(part.getRequiredParts() != requiredParts, "inconsistent number of required parts");
+			iv.when(part.getPoint().getX().signum() <= 0 || part.getPoint().getX().bitLength() > 8, "X coordinate out of range");
 		}
+		iv.validate()
+			.when(parts.length < requiredParts, requiredParts + " parts required but " + parts.length + " parts provided")
+			.validate();
+		parts = select(parts);
+		validateBuffer(secret, off, secretLength);
 		
-		for(int i = 0; i < secret.length; i++) {
-			TermPolynomial poly = new TermPolynomial(pts[i], pub.getModulus());
-			secret[i] = poly.y(BigInteger.ZERO).getNumerator().mod(pub.getModulus()).add(pub.getModulus()).mod(pub.getModulus()).byteValue();
+		int[] x = new int[parts.length];
+		for(int i = 0; i < parts.length; i++) {
+			x[i] = parts[i].getPoint().getX().intValue();
+			ys[i] = toBytes(parts[i].getPoint().getY(), secretLength, ys[i]);
 		}
+		final int[] weights = GF256.lagrangeWeights(x, 0);
+		iv.when(weights == null, "duplicate X coordinates").validate();
 		
+		Parallel.run(0, secretLength, MIN_PARALLEL_BYTES, executor, new Parallel.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				GF256.join(ys, from, weights, secret, off + from, to - from);
+			}
+		});
+		return secretLength;
+	}
+	
+	/**
+	 * Recover a block-split secret from an array of {@link BlockPart}s
+	 * @param parts The secret parts
+	 * @return The recovered secret
+	 */
+	public static byte[] joinBlocks(BlockPart[] parts) {
+		return joinBlocks(parts, null);
+	}
+	
+	/**
+	 * Recover a block-split secret from an array of {@link BlockPart}s.
+	 * Ranges of the secret are joined in parallel as for {@link #joinPerByte(PerBytePart[], Executor)}.
+	 * @param parts The secret parts
+	 * @param executor The {@link Executor} to join ranges of the secret on, or {@code null} for the calling thread
+	 * @return The recovered secret
+	 */
+	public static byte[] joinBlocks(BlockPart[] parts, Executor executor) {
+		byte[] secret = new byte[length(parts)];
+		joinBlocks(parts, secret, 0, new byte[parts.length][], executor);
 		return secret;
 	}
 	
+	/**
+	 * Recover a block-split secret from an array of {@link BlockPart}s into a buffer
+	 * @param parts The secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @return The length of the recovered secret
+	 */
+	public static int joinBlocks(BlockPart[] parts, byte[] secret, int off) {
+		InputValidation.begin().when(parts == null, "parts array is null").validate();
+		return joinBlocks(parts, secret, off, new byte[parts.length][], null);
+	}
+	
+	/**
+	 * Recover a block-split secret from an array of {@link BlockPart}s into a buffer
+	 * @param parts The secret parts
+	 * @param secret The buffer for the recovered secret
+	 * @param off The offset in {@code secret} to write the recovered secret at
+	 * @param ys Reusable buffers for the Y values of the parts, replaced when too short
+	 * @param executor The {@link Executor} to join ranges of the secret on, or {@code null} for the calling thread
+	 * @return The length of the recovered secret
+	 */
+	static int joinBlocks(BlockPart[] parts, final byte[] secret, final int off, final byte[][] ys, Executor executor) {
+		InputValidation iv = InputValidation.begin()
+				.when(parts == null, "parts array is null")
+				.when(parts != null && parts.length == 0, "parts array is empty")
+				.validate();
+			
+		final int secretLength = parts[0].getLength();
+		int requiredParts = parts[0].getRequiredParts();
+		final int blockSize = parts[0].getBlockSize();
+		final BigInteger prime = parts[0].getModulus();
+		for(BlockPart part : parts) {
+			iv.when(part.getLength() != secretLength, "inconsistent secret lengths");
+			iv.when(part.getRequiredParts() != requiredParts, "inconsistent number of required parts");
+			iv.when(part.getBlockSize() != blockSize, "inconsistent block sizes");
+			iv.when(!part.getModulus().equals(prime), "inconsistent moduli");
+		}
+		iv.validate()
+			.when(parts.length < requiredParts, requiredParts + " parts required but " + parts.length + " parts provided")
+			.validate();
+		parts = select(parts);
+		validateBuffer(secret, off, secretLength);
+		
+		int blocks = BlockField.blocks(secretLength, blockSize);
+		BigInteger[] x = new BigInteger[parts.length];
+		for(int i = 0; i < parts.length; i++) {
+			x[i] = parts[i].getPoint().getX();
+			ys[i] = toBytes(parts[i].getPoint().getY(), blocks * (blockSize + 1), ys[i]);
+		}
+		final BigInteger[] weights = ModularPolynomial.lagrangeWeights(x, BigInteger.ZERO, prime);
+		
+		Parallel.run(0, blocks, Math.max(1, MIN_PARALLEL_BYTES / blockSize), executor, new Parallel.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				BlockField.join(ys, 0, weights, prime, blockSize, from, to, secret, off, secretLength);
+			}
+		});
+		return secretLength;
+	}
+	
+	/**
+	 * Recover a dispersed secret from an array of {@link DispersalPart}s
+	 * @param parts The secret parts
+	 * @return The recovered secret
+	 */
+	public static byte[] joinDispersal(DispersalPart[] parts) {
+		InputValidation iv = InputValidation.begin()
+				.when(parts == null, "parts array is null")
+				.when(parts != null && parts.length == 0, "parts array is empty")
+				.validate();
+		
+		int secretLength = parts[0].getLength();
+		int requiredParts = parts[0].getRequiredParts();
+		int blockSize = parts[0].getBlockSize();
+		int dataSymbols = parts[0].getDataSymbols();
+		BigInteger prime = parts[0].getModulus();
+		BigInteger maxX = prime.subtract(BigInteger.valueOf(requiredParts));
+		for(DispersalPart part : parts) {
+			iv.when(part.getLength() != secretLength, "inconsistent secret lengths");
+			iv.when(part.getRequiredParts() != requiredParts, "inconsistent number of required parts");
+			iv.when(part.getBlockSize() != blockSize, "inconsistent block sizes");
+			iv.when(part.getDataSymbols() != dataSymbols, "inconsistent data symbols");
+			iv.when(!part.getModulus().equals(prime), "inconsistent moduli");
+			iv.when(part.getPoint().getX().signum() <= 0 || part.getPoint().getX().compareTo(maxX) >= 0, "X coordinate out of range");
+		}
+		iv.validate()
+			.when(parts.length < requiredParts, requiredParts + " parts required but " + parts.length + " parts provided")
+			.validate();
+		parts = select(parts);
+		
+		int stripes = DispersalField.stripes(secretLength, dataSymbols, blockSize);
+		BigInteger[] x = new BigInteger[parts.length];
+		byte[][] ys = new byte[parts.length][];
+		for(int i = 0; i < parts.length; i++) {
+			x[i] = parts[i].getPoint().getX();
+			ys[i] = toBytes(parts[i].getPoint().getY(), stripes * (blockSize + 1));
+		}
+		BigInteger[] dataXs = Arrays.copyOf(DispersalField.definingXs(requiredParts, prime), dataSymbols);
+		BigInteger[][] weights = DispersalField.weights(x, dataXs, prime);
+		
+		byte[] secret = new byte[secretLength];
+		DispersalField.join(ys, 0, weights, prime, blockSize, 0, stripes, secret);
+		return secret;
+	}
+	
+	/**
+	 * Recover secrets split by {@link #splitPacked(byte[][], int, int, int, Random)}
+	 * @param parts The secret parts
+	 * @return The recovered secrets, in the order they were split
+	 */
+	public static byte[][] joinPacked(DispersalPart[] parts) {
+		byte[] packed = joinDispersal(parts);
+		int count = parts[0].getDataSymbols();
+		InputValidation.begin().when(packed.length % count != 0, "parts are not packed secrets").validate();
+		byte[][] secrets = new byte[count][];
+		for(int i = 0; i < count; i++)
+			secrets[i] = Arrays.copyOfRange(packed, i * packed.length / count, (i + 1) * packed.length / count);
+		return secrets;
+	}
+	
+	/**
+	 * Recover a secret split by {@link #splitEncrypted(byte[], int, int, Random)} by joining
+	 * the key with {@link #joinGF256(GF256Part[])} and decrypting the ciphertext
+	 * @param ciphertext The ciphertext shared by the holders
+	 * @param keyParts The key parts
+	 * @return The recovered secret
+	 */
+	public static byte[] joinEncrypted(byte[] ciphertext, GF256Part[] keyParts) {
+		InputValidation.begin().when(ciphertext == null, "ciphertext is null").validate();
+		byte[] key = joinGF256(keyParts);
+		try {
+			InputValidation.begin().when(key.length != EncryptedSecret.KEY_BYTES, "key parts are not " + EncryptedSecret.KEY_BYTES + " bytes").validate();
+			return EncryptedSecret.decrypt(key, ciphertext);
+		} finally {
+			Arrays.fill(key, (byte) 0);
+		}
+	}
+	
+	/**
+	 * Check that redundant parts of a secret agree with each other, without recovering the secret.
+	 * The secret's polynomials are fixed by the {@code requiredParts} parts with the smallest X coordinates,
+	 * the same parts {@link #join(Part[])} recovers the secret from, and every other part is checked
+	 * against them.  The Lagrange weights at the X coordinates of all the other parts are computed together,
+	 * and the Y values are checked in one pass.<p>
+	 * 
+	 * If a part that fixes the polynomials is itself corrupted, nearly every other part will disagree.
+	 * @param parts The parts of a secret, at least {@code requiredParts} with distinct X coordinates
+	 * @return The parts that disagree, in the order given; empty if every part agrees
+	 */
+	public static Part[] verify(Part[] parts) {
+		validateParts(parts);
+		InputValidation iv = InputValidation.begin();
+		Part p0 = parts[0];
+		int requiredParts = p0.getRequiredParts();
+		BigInteger modulus = xModulus(p0);
+		Part[] sorted = sortByX(parts, modulus);
+		Part[] set = new Part[requiredParts];
+		Set<Part> inSet = Collections.newSetFromMap(new IdentityHashMap<Part, Boolean>());
+		int count = 0;
+		for(int i = 0; i < sorted.length && count < requiredParts; i++) {
+			if(count == 0 || !x(sorted[i], modulus).equals(x(set[count - 1], modulus))) {
+				set[count++] = sorted[i];
+				inSet.add(sorted[i]);
+			}
+		}
+		iv.when(count < requiredParts, requiredParts + " parts required but " + count + " distinct parts provided").validate();
+		List<Part> checked = new ArrayList<Part>();
+		for(Part part : parts) {
+			if(!inSet.contains(part))
+				checked.add(part);
+		}
+		Part[] others = checked.toArray(new Part[checked.size()]);
+		boolean[] bad = new boolean[others.length];
+		
+		int length = p0.getLength();
+		int width = width(p0);
+		
+		if(width < 0) {
+			BigInteger[] x = new BigInteger[set.length];
+			for(int i = 0; i < set.length; i++)
+				x[i] = set[i].getPoint().getX();
+			BigInteger[] at = new BigInteger[others.length];
+			for(int e = 0; e < others.length; e++)
+				at[e] = others[e].getPoint().getX();
+			BigInteger[][] weights = ModularPolynomial.lagrangeWeights(x, at, modulus);
+			for(int e = 0; e < others.length; e++) {
+				BigInteger s = BigInteger.ZERO;
+				for(int i = 0; i < set.length; i++)
+					s = s.add(weights[e][i].multiply(set[i].getPoint().getY()));
+				bad[e] = !s.mod(modulus).equals(others[e].getPoint().getY());
+			}
+		} else {
+			byte[][] ys = new byte[set.length][];
+			for(int i = 0; i < set.length; i++)
+				ys[i] = toBytes(set[i].getPoint().getY(), width);
+			byte[][] checks = new byte[others.length][];
+			for(int e = 0; e < others.length; e++) {
+				BigInteger y = others[e].getPoint().getY();
+				bad[e] = (y.signum() < 0 || y.bitLength() > 8 * width);
+				checks[e] = toBytes(y, width);
+			}
+			if(p0 instanceof PerBytePart || p0 instanceof GF256Part) {
+				int[] x = new int[set.length];
+				for(int i = 0; i < set.length; i++)
+					x[i] = x(set[i], modulus).intValue();
+				int[] at = new int[others.length];
+				for(int e = 0; e < others.length; e++)
+					at[e] = x(others[e], modulus).intValue();
+				if(p0 instanceof PerBytePart)
+					PerByteField.verify(ys, PerByteField.lagrangeWeights(x, at), checks, bad, length);
+				else
+					GF256.verify(ys, GF256.lagrangeWeights(x, at), checks, bad, length);
+			} else {
+				BigInteger[] x = new BigInteger[set.length];
+				for(int i = 0; i < set.length; i++)
+					x[i] = set[i].getPoint().getX();
+				BigInteger[] at = new BigInteger[others.length];
+				for(int e = 0; e < others.length; e++)
+					at[e] = others[e].getPoint().getX();
+				BlockField.verify(ys, ModularPolynomial.lagrangeWeights(x, at, modulus), modulus, blockSize(p0), blocks(p0), checks, bad);
+			}
+		}
+		
+		List<Part> disagree = new ArrayList<Part>();
+		for(int e = 0; e < others.length; e++) {
+			if(bad[e])
+				disagree.add(others[e]);
+		}
+		return disagree.toArray(new Part[disagree.size()]);
+	}
+	
+	/**
+	 * Recover a secret from parts of which some may be corrupted, and identify the corrupted parts.
+	 * The Y values of the parts of a secret are Reed-Solomon codewords, so from {@code n} parts with
+	 * distinct X coordinates up to {@code (n - requiredParts) / 2} corrupted parts can be corrected,
+	 * without trying every subset of {@code requiredParts} parts.<p>
+	 * 
+	 * Each byte or block of the secret is its own codeword.  Rather than decoding each of them, they
+	 * are summed with random weights into one codeword, which is decoded by Berlekamp-Welch; the parts
+	 * it agrees with are then checked with {@link #verify(Part[])}, and in the unlikely case that the
+	 * random sum hid a corruption, a new sum is tried.  Parts must be over a prime field, so
+	 * {@link GF256Part}s cannot be corrected.
+	 * @param parts The parts of a secret, at least {@code requiredParts + 2e} with distinct X coordinates
+	 * to correct {@code e} corrupted parts
+	 * @return The recovered secret and the corrupted parts
+	 * @throws IllegalArgumentException if there are too many corrupted parts to correct
+	 */
+	public static CorrectedSecret joinCorrecting(Part[] parts) {
+		validateParts(parts);
+		Part p0 = parts[0];
+		InputValidation iv = InputValidation.begin()
+			.when(p0 instanceof GF256Part, "error correction requires parts over a prime field")
+			.validate();
+		int requiredParts = p0.getRequiredParts();
+		BigInteger modulus = p0.getModulus();
+		int width = width(p0);
+		
+		// parts whose Y value is out of range are corrupted; keep one part per X coordinate for decoding
+		Set<Part> bad = Collections.newSetFromMap(new IdentityHashMap<Part, Boolean>());
+		Set<Part> repeats = Collections.newSetFromMap(new IdentityHashMap<Part, Boolean>());
+		Map<BigInteger, Part> byX = new HashMap<BigInteger, Part>();
+		List<Part> distinct = new ArrayList<Part>();
+		for(Part part : parts) {
+			BigInteger y = part.getPoint().getY();
+			if(y.signum() < 0 || (width < 0 ? y.compareTo(modulus) >= 0 : y.bitLength() > 8 * width))
+				bad.add(part);
+			else if(byX.containsKey(x(part, modulus)))
+				repeats.add(part);
+			else {
+				byX.put(x(part, modulus), part);
+				distinct.add(part);
+			}
+		}
+		int n = distinct.size();
+		iv.when(n < requiredParts, requiredParts + " parts required but " + n + " distinct parts provided").validate();
+		int errors = (n - requiredParts) / 2;
+		BigInteger[] x = new BigInteger[n];
+		for(int i = 0; i < n; i++)
+			x[i] = x(distinct.get(i), modulus);
+		
+		RandomCoefficients rnd = new RandomCoefficients(new SecureRandom());
+		for(int attempt = 1; ; attempt++) {
+			BigInteger[] y = combine(distinct, width, modulus, rnd);
+			BigInteger[] poly = BerlekampWelch.decode(x, y, requiredParts, errors, modulus);
+			iv.when(poly == null, "too many corrupted parts to correct").validate();
+			List<Part> good = new ArrayList<Part>();
+			List<Part> wrong = new ArrayList<Part>();
+			for(int i = 0; i < n; i++)
+				(BerlekampWelch.evaluate(poly, x[i], modulus).equals(y[i]) ? good : wrong).add(distinct.get(i));
+			List<Part> checked = new ArrayList<Part>(good);
+			checked.addAll(repeats);
+			Part[] disagree = verify(checked.toArray(new Part[checked.size()]));
+			boolean hidden = false;
+			for(Part part : disagree)
+				hidden |= !repeats.contains(part);
+			if(hidden) {
+				iv.when(attempt == CORRECTION_ATTEMPTS, "too many corrupted parts to correct").validate();
+				continue;
+			}
+			bad.addAll(wrong);
+			bad.addAll(Arrays.asList(disagree));
+			List<Part> corrupted = new ArrayList<Part>();
+			for(Part part : parts) {
+				if(bad.contains(part))
+					corrupted.add(part);
+			}
+			byte[] secret = join(good.toArray(new Part[good.size()]));
+			return new CorrectedSecret(secret, corrupted.toArray(new Part[corrupted.size()]));
+		}
+	}
+	
+	/**
+	 * Sum the bytes or blocks of the Y value of each part with the same random weights,
+	 * giving one codeword of the same code
+	 * @param parts The parts
+	 * @param width The width of the unpacked Y values, from {@link #width(Part)}
+	 * @param modulus The prime modulus
+	 * @param rnd A source of random weights
+	 * @return The weighted sum for each part, in {@code [0, modulus)}
+	 */
+	private static BigInteger[] combine(List<Part> parts, int width, BigInteger modulus, RandomCoefficients rnd) {
+		BigInteger[] y = new BigInteger[parts.size()];
+		if(width < 0) {
+			for(int i = 0; i < y.length; i++)
+				y[i] = parts.get(i).getPoint().getY();
+			return y;
+		}
+		Part p0 = parts.get(0);
+		if(p0 instanceof PerBytePart) {
+			int[] r = new int[p0.getLength()];
+			for(int s = 0; s < r.length; s++)
+				r[s] = rnd.nextInt(PerByteField.P);
+			for(int i = 0; i < y.length; i++)
+				y[i] = BigInteger.valueOf(PerByteField.combine(toBytes(parts.get(i).getPoint().getY(), width), r));
+			return y;
+		}
+		BigInteger[] r = new BigInteger[blocks(p0)];
+		for(int s = 0; s < r.length; s++)
+			r[s] = rnd.nextBigInteger(modulus);
+		for(int i = 0; i < y.length; i++)
+			y[i] = BlockField.combine(toBytes(parts.get(i).getPoint().getY(), width), r, modulus, blockSize(p0));
+		return y;
+	}
+	
+	/**
+	 * Create a part for a new holder from existing parts of a secret, without recovering the secret.
+	 * The new part's Y value is the secret's polynomials evaluated at {@code x} by Lagrange
+	 * interpolation from {@code requiredParts} of the existing parts, so the existing parts stay valid
+	 * and need not be redistributed.  The new part is of the same kind and format version as the others.
+	 * @param parts Parts of the secret, at least {@code requiredParts} with distinct X coordinates
+	 * @param x The X coordinate of the new part, which must not be the X coordinate of an existing part
+	 * @return The new part
+	 */
+	public static Part extend(Part[] parts, BigInteger x) {
+		validateParts(parts);
+		Part p0 = parts[0];
+		int requiredParts = p0.getRequiredParts();
+		InputValidation iv = InputValidation.begin()
+			.when(x == null, "x is null")
+			.when(parts.length < requiredParts, requiredParts + " parts required but " + parts.length + " parts provided")
+			.validate();
+		BigInteger modulus = xModulus(p0);
+		BigInteger maxX = (p0 instanceof GF256Part ? BigInteger.valueOf(256) : modulus);
+		if(p0 instanceof DispersalPart)
+			maxX = modulus.subtract(BigInteger.valueOf(requiredParts));
+		iv.when(x.signum() <= 0 || x.compareTo(maxX) >= 0, "X coordinate out of range");
+		for(Part part : parts)
+			iv.when(x(part, modulus).equals(x), "X coordinate already used");
+		iv.validate();
+		parts = select(parts);
+		
+		int length = p0.getLength();
+		int width = width(p0);
+		BigPoint point;
+		if(width < 0) {
+			BigInteger[] px = new BigInteger[parts.length];
+			for(int i = 0; i < parts.length; i++)
+				px[i] = parts[i].getPoint().getX();
+			BigInteger[] weights = ModularPolynomial.lagrangeWeights(px, x, modulus);
+			BigInteger y = BigInteger.ZERO;
+			for(int i = 0; i < parts.length; i++)
+				y = y.add(weights[i].multiply(parts[i].getPoint().getY()));
+			point = new BigPoint(x, y.mod(modulus));
+		} else {
+			byte[][] ys = new byte[parts.length][];
+			for(int i = 0; i < parts.length; i++)
+				ys[i] = toBytes(parts[i].getPoint().getY(), width);
+			byte[] y = new byte[1 + width];
+			if(p0 instanceof PerBytePart || p0 instanceof GF256Part) {
+				int[] px = new int[parts.length];
+				for(int i = 0; i < parts.length; i++)
+					px[i] = x(parts[i], modulus).intValue();
+				if(p0 instanceof PerBytePart) {
+					int[] weights = PerByteField.lagrangeWeights(px, x.intValue());
+					iv.when(weights == null, "duplicate X coordinates").validate();
+					PerByteField.extend(ys, weights, y, 1, length);
+				} else {
+					int[] weights = GF256.lagrangeWeights(px, x.intValue());
+					iv.when(weights == null, "duplicate X coordinates").validate();
+					GF256.join(ys, 0, weights, y, 1, length);
+				}
+			} else {
+				BigInteger[] px = new BigInteger[parts.length];
+				for(int i = 0; i < parts.length; i++)
+					px[i] = parts[i].getPoint().getX();
+				BigInteger[] weights = ModularPolynomial.lagrangeWeights(px, x, modulus);
+				BlockField.extend(ys, weights, modulus, blockSize(p0), blocks(p0), y, 1);
+			}
+			point = new BigPoint(x, new BigInteger(y));
+		}
+		return withPoint(p0, point);
+	}
+	
+	/**
+	 * Replace the parts of a secret with a fresh set of parts, possibly under a new policy, such as
+	 * going from 2-of-3 to 3-of-5.  The new parts lie on new polynomials with new random coefficients
+	 * and new X coordinates, so old and new parts cannot be combined.
+	 * @param parts Parts of the secret, at least {@code requiredParts} of the old policy
+	 * @param totalParts The number of new parts to create
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random
+	 * @return The new parts
+	 * @see #reshare(Part[][], int, int, Random)
+	 */
+	public static Part[] reshare(Part[] parts, int totalParts, int requiredParts, Random rnd) {
+		InputValidation.begin()
+			.when(parts == null, "parts array is null")
+			.validate();
+		Part[][] holders = new Part[parts.length][];
+		for(int j = 0; j < parts.length; j++)
+			holders[j] = new Part[] {parts[j]};
+		Part[][] fresh = reshare(holders, totalParts, requiredParts, rnd);
+		Part[] p = new Part[totalParts];
+		for(int j = 0; j < totalParts; j++)
+			p[j] = fresh[j][0];
+		return p;
+	}
+	
+	/**
+	 * Replace the parts of many secrets held by the same holders with fresh sets of parts,
+	 * possibly under a new policy.  Each secret is reshared {@link #RESHARE_CHUNK_SIZE} bytes at a time:
+	 * a chunk is recovered into a scratch buffer with the Lagrange weights of the old parts, which
+	 * are computed once per group of secrets as {@link #join(Part[][])} does, and split again at once
+	 * with new random coefficients, so no secret is held whole.  Per-byte and GF(2^8) secrets are
+	 * reshared with primitive arithmetic.  Every new holder has the same X coordinate for every
+	 * secret of a kind, as with {@link #split(byte[][], int, int, Random)}.  Multibyte parts keep their
+	 * prime.  {@link DispersalPart}s are joined whole and dispersed again.
+	 * @param parts The old parts grouped by holder: {@code parts[j][i]} is the part of secret {@code i} for holder {@code j}
+	 * @param totalParts The number of new parts to create for each secret
+	 * @param requiredParts The number of new parts required to reconstruct each secret
+	 * @param rnd A source of random
+	 * @return The new parts grouped by holder: {@code parts[j][i]} is the new part of secret {@code i} for new holder {@code j}
+	 */
+	public static Part[][] reshare(Part[][] parts, int totalParts, int requiredParts, Random rnd) {
+		InputValidation iv = InputValidation.begin()
+			.when(parts == null, "parts array is null")
+			.when(parts != null && parts.length == 0, "parts array is empty")
+			.when(totalParts < 1, "totalParts is less than 1")
+			.when(requiredParts < 1, "requiredParts is less than 1")
+			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		for(Part[] p : parts)
+			iv.when(p == null, "parts array contains null").validate();
+		for(Part[] p : parts)
+			iv.when(p.length != parts[0].length, "holders have different numbers of parts");
+		iv.validate();
+		
+		RandomCoefficients coefficients = new RandomCoefficients(rnd);
+		Map<List<Object>, Object> weights = new HashMap<List<Object>, Object>();
+		int[] perByteX = null;
+		int[][] perBytePowers = null;
+		int[] gfX = null;
+		BigInteger[] x = BigIntegers.range(1, totalParts + 1);
+		Part[][] fresh = new Part[totalParts][parts[0].length];
+		Part[] column = new Part[parts.length];
+		for(int i = 0; i < parts[0].length; i++) {
+			for(int j = 0; j < parts.length; j++) {
+				column[j] = parts[j][i];
+				iv.when(column[j] == null, "parts array contains null").validate();
+			}
+			Part p0 = column[0];
+			Part[] reshared;
+			if(p0 instanceof DispersalPart) {
+				DispersalPart d = (DispersalPart) p0;
+				iv.when(requiredParts < d.getDataSymbols(), "requiredParts is less than the number of data symbols").validate();
+				byte[] secret = join(column);
+				reshared = splitDispersal(secret, totalParts, requiredParts, d.getDataSymbols(), d.getBlockSize(), rnd);
+				Arrays.fill(secret, (byte) 0);
+			} else {
+				List<Object> key = groupKey(column);
+				Part[] chosen = select(column);
+				if(chosen != column)
+					key = groupKey(chosen);
+				Object w = weights.get(key);
+				if(w == null) {
+					w = groupWeights(chosen);
+					weights.put(key, w);
+				}
+				if(p0 instanceof PerBytePart) {
+					if(perByteX == null) {
+						iv.when(totalParts > PerBytePart.MAX_PARTS, "totalParts is greater than " + PerBytePart.MAX_PARTS).validate();
+						perByteX = PerByteField.xs(totalParts, rnd);
+						perBytePowers = PerByteField.powers(perByteX, requiredParts);
+					}
+					reshared = resharePerByte(chosen, (int[]) w, perByteX, perBytePowers, requiredParts, coefficients);
+				} else if(p0 instanceof GF256Part) {
+					if(gfX == null) {
+						iv.when(totalParts > GF256Part.MAX_PARTS, "totalParts is greater than " + GF256Part.MAX_PARTS).validate();
+						gfX = GF256.xs(totalParts, rnd);
+					}
+					reshared = reshareGF256(chosen, (int[]) w, gfX, requiredParts, coefficients);
+				} else if(p0 instanceof BlockPart) {
+					iv.when(BigInteger.valueOf(totalParts).compareTo(p0.getModulus()) >= 0, "totalParts is too large for blockSize").validate();
+					reshared = reshareBlocks(chosen, (BigInteger[]) w, x, requiredParts, coefficients);
+				} else
+					reshared = reshareMultibyte(chosen, (BigInteger[]) w, x, requiredParts, coefficients);
+			}
+			for(int j = 0; j < totalParts; j++)
+				fresh[j][i] = reshared[j];
+		}
+		return fresh;
+	}
+	
+	/**
+	 * Reshare a per-byte secret a chunk at a time
+	 * @param parts The old parts to recover the secret from
+	 * @param weights The Lagrange weights of the old parts at zero
+	 * @param x The X coordinates of the new parts
+	 * @param powers The powers of the X coordinates of the new parts
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @return The new parts
+	 */
+	private static PerBytePart[] resharePerByte(Part[] parts, int[] weights, int[] x, int[][] powers, int requiredParts, RandomCoefficients rnd) {
+		int length = parts[0].getLength();
+		byte[][] ys = new byte[parts.length][];
+		for(int i = 0; i < parts.length; i++)
+			ys[i] = toBytes(parts[i].getPoint().getY(), 2 * length);
+		byte[][] fresh = new byte[x.length][1 + 2 * length];
+		PerByteField.reshare(ys, weights, length, RESHARE_CHUNK_SIZE, powers, rnd, fresh, 1);
+		PerBytePart[] p = new PerBytePart[x.length];
+		for(int j = 0; j < x.length; j++)
+			p[j] = new PerBytePart(2, length, requiredParts, new BigPoint(BigInteger.valueOf(x[j]), new BigInteger(fresh[j])));
+		return p;
+	}
+	
+	/**
+	 * Reshare a GF(2^8) secret a chunk at a time
+	 * @param parts The old parts to recover the secret from
+	 * @param weights The Lagrange weights of the old parts at zero
+	 * @param x The X coordinates of the new parts
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @return The new parts
+	 */
+	private static GF256Part[] reshareGF256(Part[] parts, int[] weights, int[] x, int requiredParts, RandomCoefficients rnd) {
+		int length = parts[0].getLength();
+		byte[][] ys = new byte[parts.length][];
+		for(int i = 0; i < parts.length; i++)
+			ys[i] = toBytes(parts[i].getPoint().getY(), length);
+		byte[][] fresh = new byte[x.length][1 + length];
+		GF256.reshare(ys, weights, length, RESHARE_CHUNK_SIZE, x, requiredParts, rnd, fresh, 1);
+		GF256Part[] p = new GF256Part[x.length];
+		for(int j = 0; j < x.length; j++)
+			p[j] = new GF256Part(4, length, requiredParts, new BigPoint(BigInteger.valueOf(x[j]), new BigInteger(fresh[j])));
+		return p;
+	}
+	
+	/**
+	 * Reshare a block secret a chunk of blocks at a time, keeping its block size
+	 * @param parts The old parts to recover the secret from
+	 * @param weights The Lagrange weights of the old parts at zero
+	 * @param x The X coordinates of the new parts
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @return The new parts
+	 */
+	private static BlockPart[] reshareBlocks(Part[] parts, BigInteger[] weights, BigInteger[] x, int requiredParts, RandomCoefficients rnd) {
+		int length = parts[0].getLength();
+		int blockSize = blockSize(parts[0]);
+		BigInteger prime = parts[0].getModulus();
+		int width = width(parts[0]);
+		byte[][] ys = new byte[parts.length][];
+		for(int i = 0; i < parts.length; i++)
+			ys[i] = toBytes(parts[i].getPoint().getY(), width);
+		byte[][] fresh = new byte[x.length][1 + width];
+		BlockField.reshare(ys, weights, prime, blockSize, length, RESHARE_CHUNK_SIZE, x, requiredParts, rnd, fresh, 1);
+		BlockPart[] p = new BlockPart[x.length];
+		for(int j = 0; j < x.length; j++)
+			p[j] = new BlockPart(5, length, requiredParts, prime, blockSize, new BigPoint(x[j], new BigInteger(fresh[j])));
+		return p;
+	}
+	
+	/**
+	 * Reshare a multibyte secret, keeping its prime
+	 * @param parts The old parts to recover the secret from
+	 * @param weights The Lagrange weights of the old parts at zero
+	 * @param x The X coordinates of the new parts
+	 * @param requiredParts The number of new parts required to reconstruct the secret
+	 * @param rnd A source of random coefficients
+	 * @return The new parts
+	 */
+	private static Part[] reshareMultibyte(Part[] parts, BigInteger[] weights, BigInteger[] x, int requiredParts, RandomCoefficients rnd) {
+		BigInteger prime = parts[0].getModulus();
+		BigInteger[] coefficients = new BigInteger[Math.max(requiredParts, 1)];
+		BigInteger s = BigInteger.ZERO;
+		for(int i = 0; i < parts.length; i++)
+			s = s.add(weights[i].multiply(parts[i].getPoint().getY()));
+		coefficients[0] = s.mod(prime);
+		for(int c = 1; c < coefficients.length; c++)
+			coefficients[c] = rnd.nextBigInteger(prime);
+		Part[] p = new Part[x.length];
+		for(int j = 0; j < x.length; j++)
+			p[j] = new Part(parts[0].getLength(), requiredParts, prime, new BigPoint(x[j], BerlekampWelch.evaluate(coefficients, x[j], prime)));
+		return p;
+	}
+	
+	/**
+	 * Choose the parts to join a secret from, so that joining costs the same however many parts are supplied.
+	 * Parts that repeat an X coordinate are dropped, and of the rest the {@code requiredParts} parts with the
+	 * smallest X coordinates are kept.  The parts are assumed to have been checked against each other already.
+	 * @param parts The parts, at least {@code requiredParts} of them
+	 * @return {@code parts} itself if there are no more than {@code requiredParts}, otherwise the chosen parts
+	 * @throws IllegalArgumentException if two parts have the same X coordinate but different Y values,
+	 * or there are fewer than {@code requiredParts} distinct X coordinates
+	 */
+	static <P extends Part> P[] select(P[] parts) {
+		final int requiredParts = parts[0].getRequiredParts();
+		if(parts.length <= requiredParts)
+			return parts;
+		BigInteger modulus = xModulus(parts[0]);
+		P[] sorted = sortByX(parts, modulus);
+		InputValidation iv = InputValidation.begin();
+		int count = 1;
+		for(int i = 1; i < sorted.length; i++) {
+			BigInteger x = x(sorted[i], modulus);
+			if(x.equals(x(sorted[count - 1], modulus))) {
+				iv.when(!sorted[i].getPoint().getY().equals(sorted[count - 1].getPoint().getY()), "conflicting parts for X coordinate " + x);
+				continue;
+			}
+			sorted[count++] = sorted[i];
+		}
+		iv.validate()
+			.when(count < requiredParts, requiredParts + " parts required but " + count + " distinct parts provided")
+			.validate();
+		return Arrays.copyOf(sorted, requiredParts);
+	}
+	
+	/**
+	 * Check that an array of parts are all parts of the same secret
+	 * @param parts The parts
+	 */
+	private static void validateParts(Part[] parts) {
+		length(parts);
+		InputValidation iv = InputValidation.begin();
+		for(Part part : parts)
+			iv.when(part == null, "parts array contains null");
+		iv.validate();
+		Part p0 = parts[0];
+		for(Part part : parts) {
+			iv.when(part.getClass() != p0.getClass(), "inconsistent kinds of parts");
+			iv.when(part.getLength() != p0.getLength(), "inconsistent secret lengths");
+			iv.when(part.getRequiredParts() != p0.getRequiredParts(), "inconsistent number of required parts");
+			iv.when(!part.getModulus().equals(p0.getModulus()), "inconsistent moduli");
+			if(part instanceof BlockPart)
+				iv.when(((BlockPart) part).getBlockSize() != ((BlockPart) p0).getBlockSize(), "inconsistent block sizes");
+			if(part instanceof DispersalPart) {
+				iv.when(((DispersalPart) part).getBlockSize() != ((DispersalPart) p0).getBlockSize(), "inconsistent block sizes");
+				iv.when(((DispersalPart) part).getDataSymbols() != ((DispersalPart) p0).getDataSymbols(), "inconsistent data symbols");
+			}
+			if(part instanceof GF256Part)
+				iv.when(part.getPoint().getX().signum() <= 0 || part.getPoint().getX().bitLength() > 8, "X coordinate out of range");
+		}
+		iv.validate();
+	}
+	
+	/**
+	 * Return the number of bytes the Y value of a kind of part is unpacked into
+	 * @param part A part
+	 * @return The number of bytes, or {@code -1} for multibyte parts, whose Y value is a single number
+	 */
+	private static int width(Part part) {
+		int length = part.getLength();
+		if(part instanceof PerBytePart)
+			return 2 * length;
+		if(part instanceof GF256Part)
+			return length;
+		if(part instanceof BlockPart || part instanceof DispersalPart)
+			return blocks(part) * (blockSize(part) + 1);
+		return -1;
+	}
+	
+	/**
+	 * Return a part of the same kind, format version and secret as another part, at a different point
+	 * @param part The part to copy
+	 * @param point The point of the new part
+	 * @return The new part
+	 */
+	private static Part withPoint(Part part, BigPoint point) {
+		int length = part.getLength();
+		int requiredParts = part.getRequiredParts();
+		if(part instanceof PerBytePart)
+			return new PerBytePart(part.getVersion(), length, requiredParts, point);
+		if(part instanceof GF256Part)
+			return new GF256Part(part.getVersion(), length, requiredParts, point);
+		if(part instanceof BlockPart)
+			return new BlockPart(part.getVersion(), length, requiredParts, part.getModulus(), blockSize(part), point);
+		if(part instanceof DispersalPart)
+			return new DispersalPart(part.getVersion(), length, requiredParts, part.getModulus(), blockSize(part), ((DispersalPart) part).getDataSymbols(), point);
+		return new Part(part.getVersion(), length, requiredParts, part.getModulus(), point);
+	}
+	
+	/**
+	 * Return the number of secret bytes in each block of a block or dispersal part
+	 * @param part A {@link BlockPart} or {@link DispersalPart}
+	 * @return The block size
+	 */
+	private static int blockSize(Part part) {
+		if(part instanceof DispersalPart)
+			return ((DispersalPart) part).getBlockSize();
+		return ((BlockPart) part).getBlockSize();
+	}
+	
+	/**
+	 * Return the number of blocks in the Y value of a block or dispersal part: one per block
+	 * of the secret for a {@link BlockPart}, and one per stripe for a {@link DispersalPart}
+	 * @param part A {@link BlockPart} or {@link DispersalPart}
+	 * @return The number of blocks
+	 */
+	private static int blocks(Part part) {
+		if(part instanceof DispersalPart) {
+			DispersalPart d = (DispersalPart) part;
+			return DispersalField.stripes(d.getLength(), d.getDataSymbols(), d.getBlockSize());
+		}
+		return BlockField.blocks(part.getLength(), ((BlockPart) part).getBlockSize());
+	}
+	
+	/**
+	 * Return a copy of an array of parts ordered by their X coordinates
+	 * @param parts The parts
+	 * @param modulus The modulus to reduce X coordinates by, or {@code null}
+	 * @return The sorted copy
+	 */
+	private static <P extends Part> P[] sortByX(P[] parts, final BigInteger modulus) {
+		P[] sorted = parts.clone();
+		Arrays.sort(sorted, new Comparator<Part>() {
+			@Override
+			public int compare(Part o1, Part o2) {
+				return x(o1, modulus).compareTo(x(o2, modulus));
+			}
+		});
+		return sorted;
+	}
+	
+	/**
+	 * Return the modulus that X coordinates of a kind of part are reduced by before comparing them
+	 * @param part A part
+	 * @return The modulus of the part, or {@code null} for {@link GF256Part}s, whose X coordinates are not reduced
+	 */
+	private static BigInteger xModulus(Part part) {
+		return part instanceof GF256Part ? null : part.getModulus();
+	}
+	
+	/**
+	 * Return the X coordinate of a part, reduced by a modulus
+	 * @param part The part
+	 * @param modulus The modulus, or {@code null} to leave the X coordinate as it is
+	 * @return The X coordinate
+	 */
+	private static BigInteger x(Part part, BigInteger modulus) {
+		BigInteger x = part.getPoint().getX();
+		return modulus == null ? x : x.mod(modulus);
+	}
+	
+	/**
+	 * Convert a non-negative {@link BigInteger} to a big-endian byte array of
+	 * exactly {@code length} bytes, left-padding with zeros or dropping high-order bytes
+	 * @param val The value
+	 * @param length The number of bytes
+	 * @return A new array of {@code length} bytes
+	 */
+	private static byte[] toBytes(BigInteger val, int length) {
+		return toBytes(val, length, null);
+	}
+	
+	/**
+	 * Convert a non-negative {@link BigInteger} to big-endian bytes in the first
+	 * {@code length} bytes of a reusable buffer, left-padding with zeros or dropping high-order bytes
+	 * @param val The value
+	 * @param length The number of bytes
+	 * @param buf The buffer to reuse, or {@code null}
+	 * @return {@code buf}, or a new array of {@code length} bytes if {@code buf} is {@code null} or too short
+	 */
+	private static byte[] toBytes(BigInteger val, int length, byte[] buf) {
+		if(buf == null || buf.length < length)
+			buf = new byte[length];
+		BlockField.put(val, buf, 0, length);
+		return buf;
+	}
+
+	/**
+	 * Make the first {@code count} buffers of {@code ys} exactly {@code length} bytes long,
+	 * keeping buffers that already are.  Each buffer is only handed to {@link BigInteger#BigInteger(byte[])},
+	 * which copies it, so its leading byte stays zero and the rest is overwritten on every split.
+	 * @param ys The buffers
+	 * @param count The number of buffers to size
+	 * @param length The length of each buffer
+	 */
+	private static void scratch(byte[][] ys, int count, int length) {
+		for(int j = 0; j < count; j++) {
+			if(ys[j] == null || ys[j].length != length)
+				ys[j] = new byte[length];
+		}
+	}
+
+	/**
+	 * Return the length of the secret of an array of parts, checking that the array is not empty
+	 * @param parts The parts
+	 * @return The length of the secret of the first part
+	 */
+	private static int length(Part[] parts) {
+		InputValidation.begin()
+			.when(parts == null, "parts array is null")
+			.when(parts != null && parts.length == 0, "parts array is empty")
+			.when(parts != null && parts.length > 0 && parts[0] == null, "parts array contains null")
+			.validate();
+		return parts[0].getLength();
+	}
+	
+	/**
+	 * Check that a buffer has room for a secret
+	 * @param secret The buffer
+	 * @param off The offset of the secret in the buffer
+	 * @param length The length of the secret
+	 */
+	private static void validateBuffer(byte[] secret, int off, int length) {
+		InputValidation.begin()
+			.when(secret == null, "secret is null")
+			.when(off < 0, "offset is negative")
+			.validate()
+			.when(off > secret.length - length, "secret buffer is too small")
+			.validate();
+	}
+	
 	private Secrets() {}
 }
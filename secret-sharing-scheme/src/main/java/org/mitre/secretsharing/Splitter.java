@@ -0,0 +1,186 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.mitre.secretsharing.util.BigIntegers;
+import org.mitre.secretsharing.util.InputValidation;
+
+/**
+ * Reusable splitter of secrets, configured once with the number of parts, the scheme and
+ * the source of random.  A {@link Splitter} validates its configuration when it is created,
+ * caches the tables that do not depend on the secret, and reuses the buffers for the Y values
+ * of the parts between secrets of the same length, so splitting many small secrets does not
+ * allocate much more than the parts themselves.<p>
+ * 
+ * The parts are the same as those returned by the matching method of {@link Secrets} for the
+ * same source of random.  A {@link Splitter} is not thread-safe; keep one per thread, such as
+ * one per servlet worker.
+ * @author Robin Kirkman
+ *
+ */
+public class Splitter {
+	/**
+	 * The schemes a {@link Splitter} can split secrets with
+	 * @author Robin Kirkman
+	 *
+	 */
+	public static enum Scheme {
+		/**
+		 * {@link Secrets#splitMultibyte(byte[], int, int, Random)}
+		 */
+		MULTIBYTE,
+		/**
+		 * {@link Secrets#splitPerByte(byte[], int, int, Random)}
+		 */
+		PER_BYTE,
+		/**
+		 * {@link Secrets#splitGF256(byte[], int, int, Random)}
+		 */
+		GF256,
+		/**
+		 * {@link Secrets#splitBlocks(byte[], int, int, int, Random)}
+		 */
+		BLOCKS,
+	}
+	
+	private final Scheme scheme;
+	private final int totalParts;
+	private final int requiredParts;
+	private final int blockSize;
+	private final Random rnd;
+	
+	/**
+	 * The X coordinates of {@link Scheme#BLOCKS} parts
+	 */
+	private final BigInteger[] x;
+	/**
+	 * The prime of {@link Scheme#BLOCKS} parts
+	 */
+	private final BigInteger prime;
+	/**
+	 * Reusable buffers for the Y values of the parts
+	 */
+	private final byte[][] ys;
+	
+	/**
+	 * Create a {@link Splitter}, using blocks of {@link BlockPart#DEFAULT_BLOCK_SIZE} bytes
+	 * for {@link Scheme#BLOCKS}
+	 * @param scheme The scheme to split secrets with
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct a secret
+	 * @param rnd A source of random
+	 */
+	public Splitter(Scheme scheme, int totalParts, int requiredParts, Random rnd) {
+		this(scheme, totalParts, requiredParts, BlockPart.DEFAULT_BLOCK_SIZE, rnd);
+	}
+	
+	/**
+	 * Create a {@link Splitter}
+	 * @param scheme The scheme to split secrets with
+	 * @param totalParts The number of parts to create
+	 * @param requiredParts The number of parts required to reconstruct a secret
+	 * @param blockSize The number of secret bytes in each block, for {@link Scheme#BLOCKS}
+	 * @param rnd A source of random
+	 */
+	public Splitter(Scheme scheme, int totalParts, int requiredParts, int blockSize, Random rnd) {
+		InputValidation iv = InputValidation.begin()
+			.when(scheme == null, "scheme is null")
+			.when(totalParts < 1, "totalParts is less than 1")
+			.when(scheme == Scheme.PER_BYTE && totalParts > PerBytePart.MAX_PARTS, "totalParts is greater than " + PerBytePart.MAX_PARTS)
+			.when(scheme == Scheme.GF256 && totalParts > GF256Part.MAX_PARTS, "totalParts is greater than " + GF256Part.MAX_PARTS)
+			.when(scheme == Scheme.BLOCKS && requiredParts < 1, "requiredParts is less than 1")
+			.when(requiredParts > totalParts, "requiredParts is greater than totalParts")
+			.when(blockSize < 1, "blockSize is less than 1")
+			.when(rnd == null, "rnd is null")
+			.validate();
+		this.scheme = scheme;
+		this.totalParts = totalParts;
+		this.requiredParts = requiredParts;
+		this.blockSize = blockSize;
+		this.rnd = rnd;
+		if(scheme == Scheme.BLOCKS) {
+			prime = BlockField.prime(blockSize);
+			iv.when(BigInteger.valueOf(totalParts).compareTo(prime) >= 0, "totalParts is too large for blockSize").validate();
+			x = BigIntegers.range(1, totalParts + 1);
+		} else {
+			x = null;
+			prime = null;
+		}
+		ys = new byte[totalParts][];
+	}
+	
+	/**
+	 * Split a secret
+	 * @param secret The secret to split
+	 * @return An array of secret {@link Part}s
+	 */
+	public Part[] split(byte[] secret) {
+		InputValidation.begin().when(secret == null, "secret is null").validate();
+		switch(scheme) {
+		case PER_BYTE:
+			return Secrets.splitPerByte(secret, totalParts, requiredParts, rnd, null, ys);
+		case GF256:
+			return Secrets.splitGF256(secret, totalParts, requiredParts, rnd, null, ys);
+		case BLOCKS:
+			return Secrets.splitBlocks(secret, x, requiredParts, blockSize, prime, rnd, null, ys);
+		default:
+			return Secrets.splitMultibyte(secret, totalParts, requiredParts, rnd);
+		}
+	}
+	
+	/**
+	 * Returns the scheme secrets are split with
+	 * @return The scheme
+	 */
+	public Scheme getScheme() {
+		return scheme;
+	}
+	
+	/**
+	 * Returns the number of parts created for each secret
+	 * @return The number of parts
+	 */
+	public int getTotalParts() {
+		return totalParts;
+	}
+	
+	/**
+	 * Returns the number of parts required to reconstruct a secret
+	 * @return The number of required parts
+	 */
+	public int getRequiredParts() {
+		return requiredParts;
+	}
+	
+	/**
+	 * Returns the number of secret bytes in each block, for {@link Scheme#BLOCKS}
+	 * @return The block size
+	 */
+	public int getBlockSize() {
+		return blockSize;
+	}
+}
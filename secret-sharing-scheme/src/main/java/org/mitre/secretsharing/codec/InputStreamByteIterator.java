@@ -0,0 +1,74 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link ByteIterator} that iterates over the bytes of an {@link InputStream}.
+ * Bytes are read from the stream one at a time and only as they are needed, so
+ * the stream is positioned immediately after the last byte returned.
+ * @author Robin Kirkman
+ *
+ */
+public class InputStreamByteIterator implements ByteIterator {
+	/**
+	 * The stream of bytes over which to iterate
+	 */
+	protected InputStream in;
+	/**
+	 * The next byte, or {@code -1} for end of stream, or {@code -2} if not yet read
+	 */
+	protected int next = -2;
+	
+	/**
+	 * Create a new {@link InputStreamByteIterator} over an argument {@link InputStream}
+	 * @param in The stream to iterate over
+	 */
+	public InputStreamByteIterator(InputStream in) {
+		this.in = in;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if(next == -2) {
+			try {
+				next = in.read();
+			} catch(IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return next != -1;
+	}
+	
+	@Override
+	public byte next() {
+		if(!hasNext())
+			throw new NoSuchElementException();
+		byte b = (byte) next;
+		next = -2;
+		return b;
+	}
+}
@@ -26,6 +26,9 @@ package org.mitre.secretsharing.codec;
 import java.math.BigInteger;
 
 import org.mitre.secretsharing.BigPoint;
+import org.mitre.secretsharing.BlockPart;
+import org.mitre.secretsharing.DispersalPart;
+import org.mitre.secretsharing.GF256Part;
 import org.mitre.secretsharing.Part;
 import org.mitre.secretsharing.PerBytePart;
 import org.mitre.secretsharing.util.BytesReadable;
@@ -38,6 +41,16 @@ import org.mitre.secretsharing.util.InputValidation;
  *
  */
 public abstract class PartFormats {
+	/**
+	 * The modulus written in place of {@link PerBytePart#MODULUS} to identify a {@link PerBytePart}
+	 */
+	private static final BigInteger PER_BYTE = BigInteger.valueOf(-1);
+	
+	/**
+	 * The modulus written in place of {@link GF256Part#MODULUS} to identify a {@link GF256Part}
+	 */
+	private static final BigInteger GF256 = BigInteger.valueOf(-2);
+	
 	/**
 	 * Return a specific version of the {@link String} format
 	 * @param version The version
@@ -123,7 +136,12 @@ public abstract class PartFormats {
 			@Override
 			@SuppressWarnings("deprecation")
 			public String format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 4")
+					.when(part instanceof BlockPart, "block parts require format version 5")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 6")
+					.validate();
 				StringBuilder sb = new StringBuilder();
 				BytesWritable w = new BytesWritable();
 				
@@ -189,7 +207,12 @@ public abstract class PartFormats {
 			@Override
 			@SuppressWarnings("deprecation")
 			public String format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 4")
+					.when(part instanceof BlockPart, "block parts require format version 5")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 6")
+					.validate();
 				StringBuilder sb = new StringBuilder();
 				BytesWritable w = new BytesWritable();
 				
@@ -260,7 +283,12 @@ public abstract class PartFormats {
 			@Override
 			@SuppressWarnings("deprecation")
 			public String format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 4")
+					.when(part instanceof BlockPart, "block parts require format version 5")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 6")
+					.validate();
 				StringBuilder sb = new StringBuilder();
 				BytesWritable w = new BytesWritable();
 				
@@ -334,7 +362,12 @@ public abstract class PartFormats {
 			
 			@Override
 			public String format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 4")
+					.when(part instanceof BlockPart, "block parts require format version 5")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 6")
+					.validate();
 				StringBuilder sb = new StringBuilder();
 				BytesWritable w = new BytesWritable();
 				
@@ -391,6 +424,252 @@ public abstract class PartFormats {
 				return 3;
 			}
 			
+		},
+
+		/**
+		 * Format version {@code 4}, which adds {@link GF256Part}
+		 */
+		VERSION_4 {
+
+			private final String V = new BytesWritable().writeInt(4).toString();
+			
+			@Override
+			public String format(Part part) {
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof BlockPart, "block parts require format version 5")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 6")
+					.validate();
+				StringBuilder sb = new StringBuilder();
+				BytesWritable w = new BytesWritable();
+				
+				BigInteger mod = part.getModulus();
+				if(part instanceof PerBytePart)
+					mod = PER_BYTE;
+				if(part instanceof GF256Part)
+					mod = GF256;
+				
+				sb.append(V + ":");
+				sb.append(dash(w
+						.writeInt(part.getLength())
+						.writeInt(part.getRequiredParts())
+						.writeBigInteger(mod)
+						.reset()));
+				sb.append("//");
+				sb.append(dash(w
+						.writeBigInteger(part.getPoint().getX())
+						.writeBigInteger(part.getPoint().getY())
+						.reset()));
+				
+				return sb.toString();
+			}
+
+			@Override
+			public Part parse(String data) {
+				InputValidation.begin().when(data == null, "data is null").validate();
+				ByteIterator[] bia = split(data);
+				if(bia == null)
+					throw new IllegalArgumentException("Not parseable by " + this);
+				BytesReadable r;
+				
+				r = new BytesReadable(bia[0]);
+				if(r.readInt() != getVersion())
+					throw new IllegalArgumentException("Not parseable by " + this);
+				
+				r = new BytesReadable(bia[1]);
+				int length = r.readInt();
+				int requiredParts = r.readInt();
+				BigInteger modulus = r.readBigInteger();
+				
+				r = new BytesReadable(bia[2]);
+				BigInteger x = r.readBigInteger();
+				BigInteger y = r.readBigInteger();
+				BigPoint point = new BigPoint(x, y);
+				Part part;
+				if(PER_BYTE.equals(modulus))
+					part = new PerBytePart(4, length, requiredParts, point);
+				else if(GF256.equals(modulus))
+					part = new GF256Part(4, length, requiredParts, point);
+				else
+					part = new Part(4, length, requiredParts, modulus, point);
+				return part;
+			}
+
+			@Override
+			public int getVersion() {
+				return 4;
+			}
+			
+		},
+
+		/**
+		 * Format version {@code 5}, which adds {@link BlockPart}
+		 */
+		VERSION_5 {
+
+			private final String V = new BytesWritable().writeInt(5).toString();
+			
+			@Override
+			public String format(Part part) {
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 6")
+					.validate();
+				StringBuilder sb = new StringBuilder();
+				BytesWritable w = new BytesWritable();
+				
+				BigInteger mod = part.getModulus();
+				if(part instanceof PerBytePart)
+					mod = PER_BYTE;
+				if(part instanceof GF256Part)
+					mod = GF256;
+				int blockSize = 0;
+				if(part instanceof BlockPart)
+					blockSize = ((BlockPart) part).getBlockSize();
+				
+				sb.append(V + ":");
+				sb.append(dash(w
+						.writeInt(part.getLength())
+						.writeInt(part.getRequiredParts())
+						.writeBigInteger(mod)
+						.writeInt(blockSize)
+						.reset()));
+				sb.append("//");
+				sb.append(dash(w
+						.writeBigInteger(part.getPoint().getX())
+						.writeBigInteger(part.getPoint().getY())
+						.reset()));
+				
+				return sb.toString();
+			}
+
+			@Override
+			public Part parse(String data) {
+				InputValidation.begin().when(data == null, "data is null").validate();
+				ByteIterator[] bia = split(data);
+				if(bia == null)
+					throw new IllegalArgumentException("Not parseable by " + this);
+				BytesReadable r;
+				
+				r = new BytesReadable(bia[0]);
+				if(r.readInt() != getVersion())
+					throw new IllegalArgumentException("Not parseable by " + this);
+				
+				r = new BytesReadable(bia[1]);
+				int length = r.readInt();
+				int requiredParts = r.readInt();
+				BigInteger modulus = r.readBigInteger();
+				int blockSize = r.readInt();
+				
+				r = new BytesReadable(bia[2]);
+				BigInteger x = r.readBigInteger();
+				BigInteger y = r.readBigInteger();
+				BigPoint point = new BigPoint(x, y);
+				Part part;
+				if(PER_BYTE.equals(modulus))
+					part = new PerBytePart(5, length, requiredParts, point);
+				else if(GF256.equals(modulus))
+					part = new GF256Part(5, length, requiredParts, point);
+				else if(blockSize > 0)
+					part = new BlockPart(5, length, requiredParts, modulus, blockSize, point);
+				else
+					part = new Part(5, length, requiredParts, modulus, point);
+				return part;
+			}
+
+			@Override
+			public int getVersion() {
+				return 5;
+			}
+			
+		},
+
+		/**
+		 * Format version {@code 6}, which adds {@link DispersalPart}
+		 */
+		VERSION_6 {
+
+			private final String V = new BytesWritable().writeInt(6).toString();
+			
+			@Override
+			public String format(Part part) {
+				InputValidation.begin().when(part == null, "part is null").validate();
+				StringBuilder sb = new StringBuilder();
+				BytesWritable w = new BytesWritable();
+				
+				BigInteger mod = part.getModulus();
+				if(part instanceof PerBytePart)
+					mod = PER_BYTE;
+				if(part instanceof GF256Part)
+					mod = GF256;
+				int blockSize = 0;
+				int dataSymbols = 0;
+				if(part instanceof BlockPart)
+					blockSize = ((BlockPart) part).getBlockSize();
+				if(part instanceof DispersalPart) {
+					blockSize = ((DispersalPart) part).getBlockSize();
+					dataSymbols = ((DispersalPart) part).getDataSymbols();
+				}
+				
+				sb.append(V + ":");
+				sb.append(dash(w
+						.writeInt(part.getLength())
+						.writeInt(part.getRequiredParts())
+						.writeBigInteger(mod)
+						.writeInt(blockSize)
+						.writeInt(dataSymbols)
+						.reset()));
+				sb.append("//");
+				sb.append(dash(w
+						.writeBigInteger(part.getPoint().getX())
+						.writeBigInteger(part.getPoint().getY())
+						.reset()));
+				
+				return sb.toString();
+			}
+
+			@Override
+			public Part parse(String data) {
+				InputValidation.begin().when(data == null, "data is null").validate();
+				ByteIterator[] bia = split(data);
+				if(bia == null)
+					throw new IllegalArgumentException("Not parseable by " + this);
+				BytesReadable r;
+				
+				r = new BytesReadable(bia[0]);
+				if(r.readInt() != getVersion())
+					throw new IllegalArgumentException("Not parseable by " + this);
+				
+				r = new BytesReadable(bia[1]);
+				int length = r.readInt();
+				int requiredParts = r.readInt();
+				BigInteger modulus = r.readBigInteger();
+				int blockSize = r.readInt();
+				int dataSymbols = r.readInt();
+				
+				r = new BytesReadable(bia[2]);
+				BigInteger x = r.readBigInteger();
+				BigInteger y = r.readBigInteger();
+				BigPoint point = new BigPoint(x, y);
+				Part part;
+				if(PER_BYTE.equals(modulus))
+					part = new PerBytePart(6, length, requiredParts, point);
+				else if(GF256.equals(modulus))
+					part = new GF256Part(6, length, requiredParts, point);
+				else if(dataSymbols > 0)
+					part = new DispersalPart(6, length, requiredParts, modulus, blockSize, dataSymbols, point);
+				else if(blockSize > 0)
+					part = new BlockPart(6, length, requiredParts, modulus, blockSize, point);
+				else
+					part = new Part(6, length, requiredParts, modulus, point);
+				return part;
+			}
+
+			@Override
+			public int getVersion() {
+				return 6;
+			}
+			
 		}
 
 		;
@@ -491,7 +770,12 @@ public abstract class PartFormats {
 
 			@Override
 			public byte[] format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 3")
+					.when(part instanceof BlockPart, "block parts require format version 4")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 5")
+					.validate();
 				BytesWritable w = new BytesWritable();
 				w.writeInt(0);
 				w.writeInt(part.getLength());
@@ -528,7 +812,12 @@ public abstract class PartFormats {
 
 			@Override
 			public byte[] format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 3")
+					.when(part instanceof BlockPart, "block parts require format version 4")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 5")
+					.validate();
 				BytesWritable w = new BytesWritable();
 				w.writeInt(1);
 				w.writeInt(part.getLength());
@@ -567,7 +856,12 @@ public abstract class PartFormats {
 
 			@Override
 			public byte[] format(Part part) {
-				InputValidation.begin().when(part == null, "part is null").validate();
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof GF256Part, "GF(256) parts require format version 3")
+					.when(part instanceof BlockPart, "block parts require format version 4")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 5")
+					.validate();
 				BytesWritable w = new BytesWritable();
 				w.writeInt(2);
 				w.writeInt(part.getLength());
@@ -600,6 +894,183 @@ public abstract class PartFormats {
 				return 2;
 			}
 			
+		},
+
+		/**
+		 * Format version {@code 3}, which adds {@link GF256Part}
+		 */
+		VERSION_3 {
+
+			@Override
+			public byte[] format(Part part) {
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof BlockPart, "block parts require format version 4")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 5")
+					.validate();
+				BigInteger mod = part.getModulus();
+				if(part instanceof PerBytePart)
+					mod = PER_BYTE;
+				if(part instanceof GF256Part)
+					mod = GF256;
+				BytesWritable w = new BytesWritable();
+				w.writeInt(3);
+				w.writeInt(part.getLength());
+				w.writeInt(part.getRequiredParts());
+				w.writeBigInteger(mod);
+				w.writeBigInteger(part.getPoint().getX());
+				w.writeBigInteger(part.getPoint().getY());
+				return w.toByteArray();
+			}
+
+			@Override
+			public Part parse(byte[] data) {
+				InputValidation.begin().when(data == null, "data is null").validate();
+				BytesReadable r = new BytesReadable(data);
+				if(r.readInt() != 3)
+					throw new IllegalArgumentException("Not parsable by " + this);
+				int length = r.readInt();
+				int requiredParts = r.readInt();
+				BigInteger modulus = r.readBigInteger();
+				BigInteger x = r.readBigInteger();
+				BigInteger y = r.readBigInteger();
+				if(PER_BYTE.equals(modulus))
+					return new PerBytePart(3, length, requiredParts, new BigPoint(x, y));
+				else if(GF256.equals(modulus))
+					return new GF256Part(3, length, requiredParts, new BigPoint(x, y));
+				else
+					return new Part(3, length, requiredParts, modulus, new BigPoint(x, y));
+			}
+
+			@Override
+			public int getVersion() {
+				return 3;
+			}
+			
+		},
+
+		/**
+		 * Format version {@code 4}, which adds {@link BlockPart}
+		 */
+		VERSION_4 {
+
+			@Override
+			public byte[] format(Part part) {
+				InputValidation.begin()
+					.when(part == null, "part is null")
+					.when(part instanceof DispersalPart, "dispersal parts require format version 5")
+					.validate();
+				BigInteger mod = part.getModulus();
+				if(part instanceof PerBytePart)
+					mod = PER_BYTE;
+				if(part instanceof GF256Part)
+					mod = GF256;
+				int blockSize = 0;
+				if(part instanceof BlockPart)
+					blockSize = ((BlockPart) part).getBlockSize();
+				BytesWritable w = new BytesWritable();
+				w.writeInt(4);
+				w.writeInt(part.getLength());
+				w.writeInt(part.getRequiredParts());
+				w.writeBigInteger(mod);
+				w.writeInt(blockSize);
+				w.writeBigInteger(part.getPoint().getX());
+				w.writeBigInteger(part.getPoint().getY());
+				return w.toByteArray();
+			}
+
+			@Override
+			public Part parse(byte[] data) {
+				InputValidation.begin().when(data == null, "data is null").validate();
+				BytesReadable r = new BytesReadable(data);
+				if(r.readInt() != 4)
+					throw new IllegalArgumentException("Not parsable by " + this);
+				int length = r.readInt();
+				int requiredParts = r.readInt();
+				BigInteger modulus = r.readBigInteger();
+				int blockSize = r.readInt();
+				BigInteger x = r.readBigInteger();
+				BigInteger y = r.readBigInteger();
+				if(PER_BYTE.equals(modulus))
+					return new PerBytePart(4, length, requiredParts, new BigPoint(x, y));
+				else if(GF256.equals(modulus))
+					return new GF256Part(4, length, requiredParts, new BigPoint(x, y));
+				else if(blockSize > 0)
+					return new BlockPart(4, length, requiredParts, modulus, blockSize, new BigPoint(x, y));
+				else
+					return new Part(4, length, requiredParts, modulus, new BigPoint(x, y));
+			}
+
+			@Override
+			public int getVersion() {
+				return 4;
+			}
+			
+		},
+
+		/**
+		 * Format version {@code 5}, which adds {@link DispersalPart}
+		 */
+		VERSION_5 {
+
+			@Override
+			public byte[] format(Part part) {
+				InputValidation.begin().when(part == null, "part is null").validate();
+				BigInteger mod = part.getModulus();
+				if(part instanceof PerBytePart)
+					mod = PER_BYTE;
+				if(part instanceof GF256Part)
+					mod = GF256;
+				int blockSize = 0;
+				int dataSymbols = 0;
+				if(part instanceof BlockPart)
+					blockSize = ((BlockPart) part).getBlockSize();
+				if(part instanceof DispersalPart) {
+					blockSize = ((DispersalPart) part).getBlockSize();
+					dataSymbols = ((DispersalPart) part).getDataSymbols();
+				}
+				BytesWritable w = new BytesWritable();
+				w.writeInt(5);
+				w.writeInt(part.getLength());
+				w.writeInt(part.getRequiredParts());
+				w.writeBigInteger(mod);
+				w.writeInt(blockSize);
+				w.writeInt(dataSymbols);
+				w.writeBigInteger(part.getPoint().getX());
+				w.writeBigInteger(part.getPoint().getY());
+				return w.toByteArray();
+			}
+
+			@Override
+			public Part parse(byte[] data) {
+				InputValidation.begin().when(data == null, "data is null").validate();
+				BytesReadable r = new BytesReadable(data);
+				if(r.readInt() != 5)
+					throw new IllegalArgumentException("Not parsable by " + this);
+				int length = r.readInt();
+				int requiredParts = r.readInt();
+				BigInteger modulus = r.readBigInteger();
+				int blockSize = r.readInt();
+				int dataSymbols = r.readInt();
+				BigInteger x = r.readBigInteger();
+				BigInteger y = r.readBigInteger();
+				if(PER_BYTE.equals(modulus))
+					return new PerBytePart(5, length, requiredParts, new BigPoint(x, y));
+				else if(GF256.equals(modulus))
+					return new GF256Part(5, length, requiredParts, new BigPoint(x, y));
+				else if(dataSymbols > 0)
+					return new DispersalPart(5, length, requiredParts, modulus, blockSize, dataSymbols, new BigPoint(x, y));
+				else if(blockSize > 0)
+					return new BlockPart(5, length, requiredParts, modulus, blockSize, new BigPoint(x, y));
+				else
+					return new Part(5, length, requiredParts, modulus, new BigPoint(x, y));
+			}
+
+			@Override
+			public int getVersion() {
+				return 5;
+			}
+			
 		}
 
 		;
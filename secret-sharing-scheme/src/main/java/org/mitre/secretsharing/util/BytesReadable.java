@@ -83,7 +83,7 @@ public class BytesReadable {
 	
 	protected int read(byte[] buf, int from, int len) {
 		int rlen = 0;
-		for(; rlen < len; data.hasNext()) {
+		while(rlen < len && data.hasNext()) {
 			buf[from + (rlen++)] = data.next();
 		}
 		if(rlen == 0)
@@ -0,0 +1,148 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Utility class for fanning out work over a range of indexes
+ * to an {@link Executor}, such as a {@code ForkJoinPool}.
+ * @author Robin Kirkman
+ *
+ */
+public abstract class Parallel {
+	/**
+	 * Work to be performed on a sub-range of indexes
+	 * @author Robin Kirkman
+	 *
+	 */
+	public static interface RangeTask {
+		/**
+		 * Perform the work for the indexes from {@code from} (inclusive)
+		 * to {@code to} (exclusive)
+		 * @param from The first index
+		 * @param to The index after the last index
+		 */
+		public void run(int from, int to);
+	}
+	
+	/**
+	 * Partition the range from {@code from} (inclusive) to {@code to} (exclusive) into
+	 * sub-ranges of at least {@code minRange} indexes, run {@code task} on every sub-range,
+	 * and return once all sub-ranges are complete.  The first sub-range is run on the calling
+	 * thread and the rest are submitted to {@code executor}; if {@code executor} is {@code null}
+	 * or rejects a sub-range, that sub-range is also run on the calling thread.  Sub-ranges
+	 * must not write to overlapping memory.  If any sub-range throws, the first
+	 * exception is rethrown on the calling thread.<p>
+	 * 
+	 * Once its own sub-range is done, the calling thread also runs every submitted sub-range
+	 * that no worker has started yet, and then waits only for the sub-ranges already running on
+	 * other threads.  So the calling thread may itself be a worker of {@code executor}, and an
+	 * {@code executor} that queues sub-ranges it never runs, such as one that has been shut down
+	 * or discards tasks, only costs parallelism.  {@code executor} must not block in
+	 * {@link Executor#execute(Runnable)} until the submitted sub-range has been run by another thread.
+	 * @param from The lower bound of the range, inclusive
+	 * @param to The upper bound of the range, exclusive
+	 * @param minRange The minimum number of indexes in a sub-range
+	 * @param executor The {@link Executor} to submit sub-ranges to, or {@code null}
+	 * @param task The work to perform on each sub-range
+	 */
+	public static void run(int from, int to, int minRange, Executor executor, final RangeTask task) {
+		InputValidation.begin()
+			.when(from > to, "from is greater than to")
+			.when(minRange < 1, "minRange is less than 1")
+			.when(task == null, "task is null")
+			.validate();
+		int len = to - from;
+		int ranges = Math.min(len / minRange, 4 * Runtime.getRuntime().availableProcessors());
+		if(executor == null || ranges <= 1) {
+			task.run(from, to);
+			return;
+		}
+		
+		final CountDownLatch done = new CountDownLatch(ranges - 1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final AtomicIntegerArray started = new AtomicIntegerArray(ranges);
+		Runnable[] subs = new Runnable[ranges];
+		for(int r = 1; r < ranges; r++) {
+			final int index = r;
+			final int rfrom = from + (int)((long) len * r / ranges);
+			final int rto = from + (int)((long) len * (r + 1) / ranges);
+			subs[r] = new Runnable() {
+				@Override
+				public void run() {
+					if(!started.compareAndSet(index, 0, 1))
+						return;
+					try {
+						task.run(rfrom, rto);
+					} catch(Throwable t) {
+						failure.compareAndSet(null, t);
+					} finally {
+						done.countDown();
+					}
+				}
+			};
+			try {
+				executor.execute(subs[r]);
+			} catch(RejectedExecutionException e) {
+				subs[r].run();
+			}
+		}
+		try {
+			task.run(from, from + len / ranges);
+		} catch(RuntimeException e) {
+			failure.compareAndSet(null, e);
+		} catch(Error e) {
+			failure.compareAndSet(null, e);
+		}
+		for(int r = 1; r < ranges; r++)
+			subs[r].run();
+		
+		boolean interrupted = false;
+		while(true) {
+			try {
+				done.await();
+				break;
+			} catch(InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if(interrupted)
+			Thread.currentThread().interrupt();
+		
+		Throwable t = failure.get();
+		if(t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		if(t instanceof Error)
+			throw (Error) t;
+		if(t != null)
+			throw new RuntimeException(t);
+	}
+	
+	private Parallel() {}
+}
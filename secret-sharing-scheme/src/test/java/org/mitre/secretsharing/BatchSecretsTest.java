@@ -0,0 +1,113 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class BatchSecretsTest {
+	private static byte[][] secrets;
+	
+	@BeforeClass
+	public static void beforeClass() {
+		Random rnd = new Random(0L);
+		secrets = new byte[200][];
+		for(int i = 0; i < secrets.length; i++) {
+			secrets[i] = new byte[i < 100 ? 32 : 1 + rnd.nextInt(64)];
+			rnd.nextBytes(secrets[i]);
+		}
+	}
+	
+	private static void assertJoins(Part[][] parts, int... holders) {
+		Assert.assertEquals(secrets.length, parts[0].length);
+		for(int i = 0; i < secrets.length; i++) {
+			Part[] p = new Part[holders.length];
+			for(int h = 0; h < holders.length; h++)
+				p[h] = parts[holders[h]][i];
+			Assert.assertTrue(Arrays.equals(secrets[i], Secrets.join(p)));
+		}
+	}
+	
+	@Test
+	public void testMultibyte() {
+		Part[][] parts = Secrets.split(secrets, 5, 3, new Random(0L));
+		assertJoins(parts, 0, 1, 2);
+		assertJoins(parts, 4, 2, 1);
+		Assert.assertEquals(parts[0][0].getModulus(), parts[0][99].getModulus());
+	}
+	
+	@Test
+	public void testPerByte() {
+		PerBytePart[][] parts = Secrets.splitPerByte(secrets, 5, 3, new Random(0L));
+		assertJoins(parts, 0, 1, 2);
+		assertJoins(parts, 4, 2, 1);
+		for(int i = 0; i < secrets.length; i++)
+			Assert.assertEquals(parts[3][0].getPoint().getX(), parts[3][i].getPoint().getX());
+	}
+	
+	@Test
+	public void testGF256() {
+		GF256Part[][] parts = Secrets.splitGF256(secrets, 5, 3, new Random(0L));
+		assertJoins(parts, 0, 1, 2);
+		assertJoins(parts, 4, 2, 1);
+	}
+	
+	@Test
+	public void testJoin() {
+		Part[][] parts = Secrets.split(secrets, 5, 3, new Random(0L));
+		Part[][] holders = new Part[][] {parts[4], parts[0], parts[2]};
+		byte[][] joined = Secrets.join(holders);
+		for(int i = 0; i < secrets.length; i++)
+			Assert.assertTrue(Arrays.equals(secrets[i], joined[i]));
+		
+		PerBytePart[][] perByte = Secrets.splitPerByte(secrets, 4, 2, new Random(0L));
+		joined = Secrets.join(new Part[][] {perByte[1], perByte[3]});
+		for(int i = 0; i < secrets.length; i++)
+			Assert.assertTrue(Arrays.equals(secrets[i], joined[i]));
+	}
+	
+	@Test
+	public void testJoinMixed() {
+		Part[][] parts = new Part[3][secrets.length];
+		Random rnd = new Random(0L);
+		for(int i = 0; i < secrets.length; i++) {
+			Part[] p;
+			switch(i % 5) {
+			case 0: p = Secrets.split(secrets[i], 3, 2, rnd); break;
+			case 1: p = Secrets.splitPerByte(secrets[i], 3, 2, rnd); break;
+			case 2: p = Secrets.splitGF256(secrets[i], 3, 2, rnd); break;
+			case 3: p = Secrets.splitBlocks(secrets[i], 3, 2, 8, rnd); break;
+			default: p = Secrets.splitRamp(secrets[i], 3, 2, 1, rnd); break;
+			}
+			for(int j = 0; j < p.length; j++)
+				parts[j][i] = p[j];
+		}
+		byte[][] joined = Secrets.join(new Part[][] {parts[2], parts[0]});
+		for(int i = 0; i < secrets.length; i++)
+			Assert.assertTrue(Arrays.equals(secrets[i], joined[i]));
+	}
+}
@@ -0,0 +1,99 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mitre.secretsharing.codec.PartFormats;
+
+@RunWith(Parameterized.class)
+public class BlockSecretsTest {
+
+	@Parameters
+	public static Iterable<Object[]> params() {
+		List<Object[]> p = new ArrayList<Object[]>();
+		Random rnd = new Random(0L);
+		for(int i = 0; i <= 40; i++) {
+			byte[] b = new byte[i * 3];
+			rnd.nextBytes(b);
+			p.add(new Object[] {b, 1 + (i % 16)});
+		}
+		return p;
+	}
+
+	private byte[] b;
+	private int blockSize;
+	
+	public BlockSecretsTest(byte[] b, int blockSize) {
+		this.b = b;
+		this.blockSize = blockSize;
+	}
+	
+	@Test
+	public void testSecret() {
+		BlockPart[] parts = Secrets.splitBlocks(b, 5, 3, blockSize, new Random(0L));
+		byte[] r = Secrets.joinBlocks(Arrays.copyOfRange(parts, 1, 4));
+		Assert.assertTrue(Arrays.equals(b, r));
+	}
+	
+	@Test
+	public void testFormats() {
+		BlockPart[] parts = Secrets.splitBlocks(b, 3, 2, blockSize, new Random(0L));
+		Part[] parsed = new Part[parts.length];
+		for(int i = 0; i < parts.length; i++) {
+			parsed[i] = PartFormats.parse(parts[i].toString());
+			Assert.assertTrue(parsed[i] instanceof BlockPart);
+			Assert.assertTrue(PartFormats.parse(PartFormats.currentBytesFormat().format(parts[i])) instanceof BlockPart);
+		}
+		Assert.assertTrue(Arrays.equals(b, Secrets.join(parsed)));
+	}
+	
+	@Test
+	public void testTooManyParts() {
+		Assert.assertEquals(256, Secrets.splitBlocks(b, 256, 3, 1, new Random(0L)).length);
+		try {
+			Secrets.splitBlocks(b, 257, 3, 1, new Random(0L));
+			Assert.fail("part at X = p accepted");
+		} catch(IllegalArgumentException e) {
+		}
+		try {
+			new Splitter(Splitter.Scheme.BLOCKS, 257, 3, 1, new Random(0L));
+			Assert.fail("part at X = p accepted");
+		} catch(IllegalArgumentException e) {
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoRequiredParts() {
+		Secrets.splitBlocks(b, 5, 0, blockSize, new Random(0L));
+	}
+}
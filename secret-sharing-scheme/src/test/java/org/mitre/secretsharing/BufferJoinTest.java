@@ -0,0 +1,120 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class BufferJoinTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[100];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 0;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {secret, Secrets.split(secret, 4, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitPerByte(secret, 4, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitGF256(secret, 4, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitBlocks(secret, 4, 3, 16, rnd)});
+		p.add(new Object[] {secret, Secrets.splitRamp(secret, 4, 3, 1, rnd)});
+		return p;
+	}
+	
+	private byte[] secret;
+	private Part[] parts;
+	
+	public BufferJoinTest(byte[] secret, Part[] parts) {
+		this.secret = secret;
+		this.parts = Arrays.copyOfRange(parts, 1, 4);
+	}
+	
+	@Test
+	public void testArray() {
+		byte[] buf = new byte[secret.length + 14];
+		Arrays.fill(buf, (byte) 0x55);
+		Assert.assertEquals(secret.length, Secrets.join(parts, buf, 7));
+		Assert.assertTrue(Arrays.equals(secret, Arrays.copyOfRange(buf, 7, 7 + secret.length)));
+		for(int i = 0; i < 7; i++) {
+			Assert.assertEquals(0x55, buf[i]);
+			Assert.assertEquals(0x55, buf[buf.length - 1 - i]);
+		}
+	}
+	
+	@Test
+	public void testByteBuffer() {
+		for(ByteBuffer buf : new ByteBuffer[] {ByteBuffer.allocate(secret.length + 3), ByteBuffer.allocateDirect(secret.length + 3)}) {
+			buf.position(3);
+			Assert.assertEquals(secret.length, Secrets.join(parts, buf));
+			Assert.assertFalse(buf.hasRemaining());
+			byte[] b = new byte[secret.length];
+			buf.position(3);
+			buf.get(b);
+			Assert.assertTrue(Arrays.equals(secret, b));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooSmall() {
+		Secrets.join(parts, new byte[secret.length], 1);
+	}
+	
+	@Test
+	public void testJoinerByteBuffer() {
+		Joiner joiner = new Joiner();
+		for(int i = 0; i < 2; i++) {
+			ByteBuffer buf = ByteBuffer.allocateDirect(secret.length);
+			Assert.assertEquals(secret.length, joiner.join(parts, buf));
+			byte[] b = new byte[secret.length];
+			buf.flip();
+			buf.get(b);
+			Assert.assertTrue(Arrays.equals(secret, b));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testMixedKinds() {
+		Part[] mixed = Arrays.copyOf(parts, parts.length, Part[].class);
+		mixed[1] = Secrets.split(secret, 4, 3, new Random(1L))[1];
+		if(mixed[1].getClass() == parts[0].getClass())
+			mixed[1] = Secrets.splitGF256(secret, 4, 3, new Random(1L))[1];
+		Secrets.join(mixed, new byte[secret.length], 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullPart() {
+		Part[] missing = parts.clone();
+		missing[1] = null;
+		new Joiner().join(missing, ByteBuffer.allocate(secret.length));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class CorrectingJoinTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[50];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 1;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {secret, Secrets.split(secret, 9, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitPerByte(secret, 9, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitBlocks(secret, 9, 3, 16, rnd)});
+		p.add(new Object[] {secret, Secrets.splitRamp(secret, 9, 3, 1, rnd)});
+		return p;
+	}
+	
+	private byte[] secret;
+	private Part[] parts;
+	
+	public CorrectingJoinTest(byte[] secret, Part[] parts) {
+		this.secret = secret;
+		this.parts = parts;
+	}
+	
+	@Test
+	public void testNoCorruption() {
+		CorrectedSecret c = Secrets.joinCorrecting(parts);
+		Assert.assertTrue(Arrays.equals(secret, c.getSecret()));
+		Assert.assertEquals(0, c.getBadParts().length);
+	}
+	
+	@Test
+	public void testCorrectsErrors() {
+		Part[] p = parts.clone();
+		p[0] = VerifyTest.corrupt(p[0], 5);
+		p[4] = VerifyTest.corrupt(p[4], 0);
+		p[8] = VerifyTest.corrupt(p[8], 200);
+		CorrectedSecret c = Secrets.joinCorrecting(p);
+		Assert.assertTrue(Arrays.equals(secret, c.getSecret()));
+		Assert.assertTrue(Arrays.equals(new Part[] {p[0], p[4], p[8]}, c.getBadParts()));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyErrors() {
+		Part[] p = Arrays.copyOf(parts, 5);
+		p[0] = VerifyTest.corrupt(p[0], 5);
+		p[1] = VerifyTest.corrupt(p[1], 7);
+		Secrets.joinCorrecting(p);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGF256() {
+		Secrets.joinCorrecting(Secrets.splitGF256(secret, 5, 3, new Random(0L)));
+	}
+}
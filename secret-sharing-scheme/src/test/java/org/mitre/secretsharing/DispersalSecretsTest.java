@@ -0,0 +1,129 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mitre.secretsharing.codec.PartFormats;
+
+@RunWith(Parameterized.class)
+public class DispersalSecretsTest {
+
+	@Parameters
+	public static Iterable<Object[]> params() {
+		List<Object[]> p = new ArrayList<Object[]>();
+		Random rnd = new Random(0L);
+		for(int i = 0; i <= 40; i++) {
+			byte[] b = new byte[i * 7];
+			rnd.nextBytes(b);
+			p.add(new Object[] {b, 1 + (i % 16)});
+		}
+		return p;
+	}
+
+	private byte[] b;
+	private int blockSize;
+	
+	public DispersalSecretsTest(byte[] b, int blockSize) {
+		this.b = b;
+		this.blockSize = blockSize;
+	}
+	
+	@Test
+	public void testSecret() {
+		DispersalPart[] parts = Secrets.splitDispersal(b, 5, 3, blockSize);
+		Assert.assertTrue(Arrays.equals(b, Secrets.joinDispersal(Arrays.copyOfRange(parts, 1, 4))));
+		Assert.assertTrue(Arrays.equals(b, Secrets.joinDispersal(new DispersalPart[] {parts[4], parts[0], parts[2]})));
+		Assert.assertTrue(Arrays.equals(b, Secrets.joinDispersal(parts)));
+	}
+	
+	@Test
+	public void testSize() {
+		DispersalPart[] parts = Secrets.splitDispersal(b, 5, 3, blockSize);
+		int stripes = (((b.length + 2) / 3) + blockSize - 1) / blockSize;
+		for(DispersalPart part : parts)
+			Assert.assertTrue(part.getPoint().getY().bitLength() <= 8 * stripes * (blockSize + 1));
+	}
+	
+	@Test
+	public void testFormats() {
+		DispersalPart[] parts = Secrets.splitDispersal(b, 3, 2, blockSize);
+		Part[] parsed = new Part[parts.length];
+		for(int i = 0; i < parts.length; i++) {
+			parsed[i] = PartFormats.parse(parts[i].toString());
+			Assert.assertTrue(parsed[i] instanceof DispersalPart);
+			Assert.assertTrue(PartFormats.parse(PartFormats.currentBytesFormat().format(parts[i])) instanceof DispersalPart);
+		}
+		Assert.assertTrue(Arrays.equals(b, Secrets.join(parsed)));
+	}
+	
+	@Test
+	public void testRamp() {
+		for(int t = 0; t < 4; t++) {
+			DispersalPart[] parts = Secrets.splitRamp(b, 6, 4, t, blockSize, new Random(0L));
+			Assert.assertEquals(t, parts[0].getPrivacyThreshold());
+			Assert.assertTrue(Arrays.equals(b, Secrets.join(Arrays.copyOfRange(parts, 2, 6))));
+		}
+	}
+	
+	@Test
+	public void testPacked() {
+		byte[][] secrets = new byte[4][b.length];
+		Random rnd = new Random(b.length);
+		for(byte[] secret : secrets)
+			rnd.nextBytes(secret);
+		DispersalPart[] parts = Secrets.splitPacked(secrets, 8, 6, blockSize, rnd);
+		byte[][] joined = Secrets.joinPacked(Arrays.copyOfRange(parts, 2, 8));
+		Assert.assertEquals(secrets.length, joined.length);
+		for(int i = 0; i < secrets.length; i++)
+			Assert.assertTrue(Arrays.equals(secrets[i], joined[i]));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testOldFormat() {
+		PartFormats.stringFormat(5).format(Secrets.splitDispersal(b, 3, 2, blockSize)[0]);
+	}
+	
+	@Test
+	public void testTooManyParts() {
+		Assert.assertEquals(254, Secrets.splitDispersal(b, 254, 2, 1).length);
+		try {
+			Secrets.splitDispersal(b, 255, 2, 1);
+			Assert.fail("part at a defining X accepted");
+		} catch(IllegalArgumentException e) {
+		}
+		try {
+			Secrets.splitRamp(b, 254, 3, 1, 1, new Random(0L));
+			Assert.fail("part at a defining X accepted");
+		} catch(IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mitre.secretsharing.codec.PartFormats;
+import org.mitre.secretsharing.util.InputValidationException;
+
+public class EncryptedSecretTest {
+	private static final Random rnd = new SecureRandom();
+	
+	@Test
+	public void testSecret() {
+		for(int length : new int[] {0, 1, 32, 100000}) {
+			byte[] secret = new byte[length];
+			rnd.nextBytes(secret);
+			EncryptedSecret es = Secrets.splitEncrypted(secret, 5, 3, rnd);
+			Assert.assertEquals(EncryptedSecret.NONCE_BYTES + length + EncryptedSecret.TAG_BITS / 8, es.getCiphertext().length);
+			Assert.assertEquals(5, es.getKeyParts().length);
+			Assert.assertTrue(Arrays.equals(secret, es.join()));
+			Assert.assertTrue(Arrays.equals(secret, Secrets.joinEncrypted(es.getCiphertext(), Arrays.copyOfRange(es.getKeyParts(), 2, 5))));
+		}
+	}
+	
+	@Test
+	public void testFormats() {
+		byte[] secret = new byte[1000];
+		rnd.nextBytes(secret);
+		EncryptedSecret es = Secrets.splitEncrypted(secret, 3, 2, rnd);
+		GF256Part[] parsed = new GF256Part[2];
+		for(int i = 0; i < parsed.length; i++)
+			parsed[i] = (GF256Part) PartFormats.parse(es.getKeyParts()[i].toString());
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinEncrypted(es.getCiphertext(), parsed)));
+	}
+	
+	@Test(expected = InputValidationException.class)
+	public void testTamperedCiphertext() {
+		EncryptedSecret es = Secrets.splitEncrypted(new byte[100], 3, 2, rnd);
+		byte[] ciphertext = es.getCiphertext().clone();
+		ciphertext[EncryptedSecret.NONCE_BYTES] ^= 1;
+		Secrets.joinEncrypted(ciphertext, es.getKeyParts());
+	}
+	
+	@Test(expected = InputValidationException.class)
+	public void testWrongParts() {
+		EncryptedSecret a = Secrets.splitEncrypted(new byte[100], 3, 2, rnd);
+		EncryptedSecret b = Secrets.splitEncrypted(new byte[100], 3, 2, rnd);
+		Secrets.joinEncrypted(a.getCiphertext(), b.getKeyParts());
+	}
+}
@@ -0,0 +1,100 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class ExtendTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[50];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 1;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {secret, Secrets.split(secret, 5, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitPerByte(secret, 5, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitGF256(secret, 5, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitBlocks(secret, 5, 3, 16, rnd)});
+		p.add(new Object[] {secret, Secrets.splitRamp(secret, 5, 3, 1, rnd)});
+		return p;
+	}
+	
+	private byte[] secret;
+	private Part[] parts;
+	
+	public ExtendTest(byte[] secret, Part[] parts) {
+		this.secret = secret;
+		this.parts = parts;
+	}
+	
+	/**
+	 * Return an X coordinate not used by any of the parts
+	 */
+	private BigInteger unusedX() {
+		for(int x = 1; ; x++) {
+			boolean used = false;
+			for(Part p : parts)
+				used |= p.getPoint().getX().equals(BigInteger.valueOf(x));
+			if(!used)
+				return BigInteger.valueOf(x);
+		}
+	}
+	
+	@Test
+	public void testExtend() {
+		BigInteger x = unusedX();
+		Part added = Secrets.extend(Arrays.copyOfRange(parts, 2, 5), x);
+		Assert.assertSame(parts[0].getClass(), added.getClass());
+		Assert.assertEquals(x, added.getPoint().getX());
+		Assert.assertEquals(0, Secrets.verify(new Part[] {parts[0], parts[1], parts[2], parts[3], parts[4], added}).length);
+		Assert.assertTrue(Arrays.equals(secret, Secrets.join(new Part[] {added, parts[0], parts[1]})));
+		Assert.assertEquals(added.toString(), Secrets.extend(parts, x).toString());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testUsedX() {
+		Secrets.extend(parts, parts[3].getPoint().getX());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroX() {
+		Secrets.extend(parts, BigInteger.ZERO);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooFew() {
+		Secrets.extend(Arrays.copyOf(parts, 2), unusedX());
+	}
+}
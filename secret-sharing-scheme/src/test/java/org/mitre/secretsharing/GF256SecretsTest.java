@@ -0,0 +1,85 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mitre.secretsharing.codec.PartFormats;
+
+@RunWith(Parameterized.class)
+public class GF256SecretsTest {
+
+	@Parameters
+	public static Iterable<Object[]> params() {
+		List<Object[]> p = new ArrayList<Object[]>();
+		Random rnd = new Random(0L);
+		for(int i = 1; i <= 32; i++) {
+			byte[] b = new byte[i];
+			rnd.nextBytes(b);
+			p.add(new Object[] {b});
+		}
+		return p;
+	}
+
+	private byte[] b;
+	
+	public GF256SecretsTest(byte[] b) {
+		this.b = b;
+	}
+	
+	@Test
+	public void testSecret() {
+		GF256Part[] parts = Secrets.splitGF256(b, 5, 3, new Random(0L));
+		byte[] r = Secrets.joinGF256(Arrays.copyOfRange(parts, 2, 5));
+		Assert.assertTrue(Arrays.equals(b, r));
+	}
+	
+	@Test
+	public void testFormats() {
+		GF256Part[] parts = Secrets.splitGF256(b, 4, 4, new Random(0L));
+		Part[] parsed = new Part[parts.length];
+		for(int i = 0; i < parts.length; i++) {
+			parsed[i] = PartFormats.parse(parts[i].toString());
+			Assert.assertTrue(parsed[i] instanceof GF256Part);
+			Assert.assertTrue(PartFormats.parse(PartFormats.currentBytesFormat().format(parts[i])) instanceof GF256Part);
+		}
+		Assert.assertTrue(Arrays.equals(b, Secrets.join(parsed)));
+	}
+	
+	@Test
+	public void testFieldTables() {
+		for(int a = 1; a < 256; a++) {
+			Assert.assertEquals(a, GF256.EXP[GF256.LOG[a]]);
+			Assert.assertEquals(1, GF256.mul(a, GF256.div(1, a)));
+		}
+	}
+}
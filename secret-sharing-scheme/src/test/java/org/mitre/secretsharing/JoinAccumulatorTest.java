@@ -0,0 +1,144 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class JoinAccumulatorTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[100];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 1;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {secret, Secrets.split(secret, 6, 4, rnd)});
+		p.add(new Object[] {secret, Secrets.splitPerByte(secret, 6, 4, rnd)});
+		p.add(new Object[] {secret, Secrets.splitGF256(secret, 6, 4, rnd)});
+		p.add(new Object[] {secret, Secrets.splitBlocks(secret, 6, 4, 16, rnd)});
+		p.add(new Object[] {secret, Secrets.splitRamp(secret, 6, 4, 2, rnd)});
+		return p;
+	}
+	
+	private byte[] secret;
+	private Part[] parts;
+	
+	public JoinAccumulatorTest(byte[] secret, Part[] parts) {
+		this.secret = secret;
+		this.parts = parts;
+	}
+	
+	@Test
+	public void testIncremental() {
+		JoinAccumulator acc = new JoinAccumulator();
+		Assert.assertNull(acc.getPublicPart());
+		for(int i = parts.length - 1; i >= 2; i--) {
+			Assert.assertFalse(acc.isReady());
+			Assert.assertTrue(acc.add(parts[i]));
+			Assert.assertFalse(acc.add(parts[i]));
+		}
+		Assert.assertTrue(acc.isReady());
+		Assert.assertEquals(4, acc.getPartCount());
+		Assert.assertTrue(Arrays.equals(secret, acc.getSecret()));
+		Assert.assertFalse(acc.add(parts[0]));
+		Assert.assertTrue(Arrays.equals(secret, acc.getSecret()));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotReady() {
+		JoinAccumulator acc = new JoinAccumulator();
+		acc.add(parts[0]);
+		acc.add(parts[1]);
+		acc.getSecret();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testConflicting() {
+		JoinAccumulator acc = new JoinAccumulator();
+		acc.add(parts[0]);
+		Part p = parts[0];
+		BigPoint point = new BigPoint(p.getPoint().getX(), p.getPoint().getY().flipBit(0));
+		if(p instanceof PerBytePart)
+			acc.add(new PerBytePart(p.getVersion(), p.getLength(), p.getRequiredParts(), point));
+		else if(p instanceof GF256Part)
+			acc.add(new GF256Part(p.getVersion(), p.getLength(), p.getRequiredParts(), point));
+		else if(p instanceof BlockPart)
+			acc.add(new BlockPart(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), ((BlockPart) p).getBlockSize(), point));
+		else if(p instanceof DispersalPart)
+			acc.add(new DispersalPart(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), ((DispersalPart) p).getBlockSize(), ((DispersalPart) p).getDataSymbols(), point));
+		else
+			acc.add(new Part(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), point));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInconsistent() {
+		JoinAccumulator acc = new JoinAccumulator();
+		acc.add(parts[0]);
+		acc.add(Secrets.splitGF256(secret, 6, 3, new Random(1L))[1]);
+	}
+	
+	@Test
+	public void testRejectedFirstPart() {
+		JoinAccumulator acc = new JoinAccumulator();
+		Part bad = new GF256Part(4, 7, 2, new BigPoint(BigInteger.valueOf(300), BigInteger.ONE));
+		try {
+			acc.add(bad);
+			Assert.fail("X coordinate 300 accepted");
+		} catch(IllegalArgumentException e) {
+		}
+		Assert.assertEquals(0, acc.getPartCount());
+		Assert.assertNull(acc.getPublicPart());
+		for(int i = 0; i < 4; i++)
+			Assert.assertTrue(acc.add(parts[i]));
+		Assert.assertTrue(Arrays.equals(secret, acc.getSecret()));
+	}
+	
+	@Test
+	public void testDispersalX() {
+		DispersalPart[] d = Secrets.splitDispersal(secret, 4, 2, 1);
+		JoinAccumulator acc = new JoinAccumulator();
+		Assert.assertTrue(acc.add(d[0]));
+		DispersalPart p = d[1];
+		for(BigInteger x : new BigInteger[] {p.getPoint().getX().add(p.getModulus()), p.getModulus().subtract(BigInteger.ONE)}) {
+			try {
+				acc.add(new DispersalPart(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), p.getBlockSize(), p.getDataSymbols(), new BigPoint(x, p.getPoint().getY())));
+				Assert.fail("X coordinate " + x + " accepted");
+			} catch(IllegalArgumentException e) {
+			}
+		}
+		Assert.assertEquals(1, acc.getPartCount());
+		Assert.assertTrue(acc.add(p));
+		Assert.assertTrue(Arrays.equals(secret, acc.getSecret()));
+	}
+}
@@ -0,0 +1,84 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class JoinSelectionTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[50];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 1;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {secret, Secrets.split(secret, 20, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitPerByte(secret, 20, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitGF256(secret, 20, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitBlocks(secret, 20, 3, 16, rnd)});
+		p.add(new Object[] {secret, Secrets.splitRamp(secret, 20, 3, 1, rnd)});
+		return p;
+	}
+	
+	private byte[] secret;
+	private Part[] parts;
+	
+	public JoinSelectionTest(byte[] secret, Part[] parts) {
+		this.secret = secret;
+		this.parts = parts;
+	}
+	
+	@Test
+	public void testSelectsRequiredParts() {
+		Part[] chosen = Secrets.select(parts);
+		Assert.assertEquals(3, chosen.length);
+		for(int i = 1; i < chosen.length; i++)
+			Assert.assertTrue(chosen[i - 1].getPoint().getX().compareTo(chosen[i].getPoint().getX()) < 0);
+	}
+	
+	@Test
+	public void testJoinAllWithRepeats() {
+		Part[] all = Arrays.copyOf(parts, parts.length * 2);
+		System.arraycopy(parts, 0, all, parts.length, parts.length);
+		Assert.assertTrue(Arrays.equals(secret, Secrets.join(all)));
+		Part[][] holders = new Part[all.length][];
+		for(int j = 0; j < all.length; j++)
+			holders[j] = new Part[] {all[j]};
+		Assert.assertTrue(Arrays.equals(secret, Secrets.join(holders)[0]));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooFewDistinct() {
+		Secrets.join(new Part[] {parts[0], parts[1], parts[0], parts[1]});
+	}
+}
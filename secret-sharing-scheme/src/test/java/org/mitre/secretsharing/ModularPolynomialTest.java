@@ -0,0 +1,95 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mitre.secretsharing.util.BigIntegers;
+
+@RunWith(Parameterized.class)
+public class ModularPolynomialTest {
+	private static final Random rnd = new Random(0L);
+	
+	@Parameters
+	public static Iterable<Object[]> params() {
+		List<Object[]> p = new ArrayList<Object[]>();
+		for(int i = 0; i < 100; i++) {
+			BigInteger secret = new BigInteger(8 + i, rnd);
+			int powx = 1 + (i % 9);
+			p.add(new Object[] {secret, powx});
+		}
+		return p;
+	}
+	
+	private BigInteger secret;
+	private int powx;
+	
+	public ModularPolynomialTest(BigInteger secret, int powx) {
+		this.secret = secret;
+		this.powx = powx;
+	}
+	
+	@Test
+	public void testReconstructSecret() {
+		ModularPolynomial sp = new ModularPolynomial(secret, secret.bitLength(), powx, rnd);
+		BigPoint[] pts = sp.p(BigIntegers.range(1, powx+2));
+		ModularPolynomial lp = new ModularPolynomial(pts, sp.getModulus());
+		Assert.assertEquals(sp, lp);
+		Assert.assertEquals(secret, lp.y(BigInteger.ZERO));
+	}
+	
+	@Test
+	public void testMatchesTermPolynomial() {
+		ModularPolynomial sp = new ModularPolynomial(secret, secret.bitLength(), powx, rnd);
+		BigPoint[] pts = sp.p(BigIntegers.range(1, powx+2));
+		TermPolynomial tp = new TermPolynomial(pts, sp.getModulus());
+		Assert.assertEquals(new ModularPolynomial(tp), new ModularPolynomial(pts, sp.getModulus()));
+		Assert.assertEquals(tp, sp.toTermPolynomial());
+	}
+	
+	@Test
+	public void testInterpolate() {
+		ModularPolynomial sp = new ModularPolynomial(secret, secret.bitLength(), powx, rnd);
+		BigPoint[] pts = sp.p(BigIntegers.range(1, powx+2));
+		Assert.assertEquals(secret, ModularPolynomial.interpolate(pts, BigInteger.ZERO, sp.getModulus()));
+		BigInteger x = BigInteger.valueOf(powx + 7);
+		Assert.assertEquals(sp.y(x), ModularPolynomial.interpolate(pts, x, sp.getModulus()));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateX() {
+		ModularPolynomial sp = new ModularPolynomial(secret, secret.bitLength(), powx, rnd);
+		BigPoint[] pts = sp.p(BigIntegers.range(1, powx+2));
+		pts[powx] = new BigPoint(pts[0].getX().add(sp.getModulus()), pts[0].getY());
+		ModularPolynomial.lagrangePolynomial(pts, sp.getModulus());
+	}
+}
@@ -0,0 +1,104 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+
+package org.mitre.secretsharing;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelSecretsTest {
+	private static ExecutorService executor;
+	private static byte[] secret;
+	
+	@BeforeClass
+	public static void beforeClass() {
+		executor = Executors.newFixedThreadPool(4);
+		secret = new byte[256 * 1024 + 17];
+		new Random(0L).nextBytes(secret);
+	}
+	
+	@AfterClass
+	public static void afterClass() {
+		executor.shutdown();
+	}
+	
+	@Test
+	public void testPerByte() {
+		PerBytePart[] parts = Secrets.splitPerByte(secret, 5, 3, new Random(0L), executor);
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinPerByte(Arrays.copyOf(parts, 3), executor)));
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinPerByte(Arrays.copyOfRange(parts, 2, 5))));
+	}
+	
+	@Test
+	public void testGF256() {
+		GF256Part[] parts = Secrets.splitGF256(secret, 5, 3, new Random(0L), executor);
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinGF256(Arrays.copyOf(parts, 3), executor)));
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinGF256(Arrays.copyOfRange(parts, 2, 5))));
+	}
+	
+	@Test
+	public void testBlocks() {
+		BlockPart[] parts = Secrets.splitBlocks(secret, 5, 3, 32, new Random(0L), executor);
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinBlocks(Arrays.copyOf(parts, 3), executor)));
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinBlocks(Arrays.copyOfRange(parts, 2, 5))));
+	}
+	
+	@Test
+	public void testDiscardingExecutor() {
+		Executor discard = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+			}
+		};
+		PerBytePart[] parts = Secrets.splitPerByte(secret, 5, 3, new Random(0L), discard);
+		Assert.assertTrue(Arrays.equals(secret, Secrets.joinPerByte(Arrays.copyOf(parts, 3), discard)));
+	}
+	
+	@Test
+	public void testNestedInPool() throws Exception {
+		final ExecutorService single = Executors.newSingleThreadExecutor();
+		try {
+			Future<byte[]> joined = single.submit(new Callable<byte[]>() {
+				@Override
+				public byte[] call() {
+					GF256Part[] parts = Secrets.splitGF256(secret, 5, 3, new Random(0L), single);
+					return Secrets.joinGF256(Arrays.copyOf(parts, 3), single);
+				}
+			});
+			Assert.assertTrue(Arrays.equals(secret, joined.get(60, TimeUnit.SECONDS)));
+		} finally {
+			single.shutdown();
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.mitre.secretsharing;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -38,4 +39,33 @@ public class PerByteSecretsTest {
 		byte[] r = Secrets.joinPerByte(Arrays.copyOf(parts, 3));
 		Assert.assertTrue(Arrays.equals(b, r));
 	}
+	
+	@Test
+	public void testMatchesTermPolynomial() {
+		PerBytePart[] parts = Secrets.splitPerByte(b, 5, 3, new Random(0L));
+		Random rnd = new Random(0L);
+		List<Integer> xs = new ArrayList<Integer>();
+		for(int i = 1; i < PerBytePart.MODULUS.intValue(); i++)
+			xs.add(i);
+		BigInteger[] x = new BigInteger[parts.length];
+		for(int j = 0; j < x.length; j++)
+			x[j] = BigInteger.valueOf(xs.remove((int)(rnd.nextDouble() * xs.size())));
+		RandomCoefficients coefficients = new RandomCoefficients(rnd);
+		byte[][] ys = new byte[parts.length][1 + b.length * 2];
+		for(int i = 0; i < b.length; i++) {
+			TermPolynomial poly = TermPolynomial.ONE.multiply(BigInteger.valueOf(0xFF & b[i]));
+			for(int j = 0; j < 2; j++)
+				poly = poly.add(TermPolynomial.ONE.multiply(BigInteger.valueOf(coefficients.nextInt(PerBytePart.MODULUS.intValue()))).powX(j+1));
+			poly = new TermPolynomial(poly.getTerms(), PerBytePart.MODULUS);
+			for(int j = 0; j < parts.length; j++) {
+				int v = poly.p(x[j]).getY().intValue();
+				ys[j][2*i+1] = (byte)(v >>> 8);
+				ys[j][2*i+2] = (byte) v;
+			}
+		}
+		for(int j = 0; j < parts.length; j++) {
+			Assert.assertEquals(x[j], parts[j].getPoint().getX());
+			Assert.assertEquals(new BigInteger(ys[j]), parts[j].getPoint().getY());
+		}
+	}
 }
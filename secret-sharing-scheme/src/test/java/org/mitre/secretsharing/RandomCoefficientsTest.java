@@ -0,0 +1,68 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RandomCoefficientsTest {
+	@Test
+	public void testNextIntBounds() {
+		RandomCoefficients rnd = new RandomCoefficients(new Random(0L));
+		for(int bound : new int[] {1, 2, 3, 255, 256, 257, PerBytePart.MODULUS.intValue(), 65536}) {
+			boolean top = false;
+			for(int i = 0; i < 100000 && !top; i++) {
+				int v = rnd.nextInt(bound);
+				Assert.assertTrue(v >= 0 && v < bound);
+				top = (v == bound - 1);
+			}
+			Assert.assertTrue(top);
+		}
+	}
+	
+	@Test
+	public void testNextBigIntegerBounds() {
+		RandomCoefficients rnd = new RandomCoefficients(new Random(0L));
+		BigInteger bound = BlockField.prime(3);
+		for(int i = 0; i < 1000; i++) {
+			BigInteger v = rnd.nextBigInteger(bound);
+			Assert.assertTrue(v.signum() >= 0 && v.compareTo(bound) < 0);
+			Assert.assertTrue(rnd.nextBits(13).bitLength() <= 13);
+		}
+	}
+	
+	@Test
+	public void testIndependentOfPieces() {
+		byte[] whole = new byte[3 * RandomCoefficients.MAX_BLOCK + 17];
+		new RandomCoefficients(new Random(1L)).nextBytes(whole, 0, whole.length);
+		byte[] pieces = new byte[whole.length];
+		RandomCoefficients rnd = new RandomCoefficients(new Random(1L));
+		for(int off = 0; off < pieces.length; off += 1000)
+			rnd.nextBytes(pieces, off, Math.min(1000, pieces.length - off));
+		Assert.assertTrue(Arrays.equals(whole, pieces));
+	}
+}
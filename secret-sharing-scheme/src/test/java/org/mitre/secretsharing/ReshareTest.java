@@ -0,0 +1,138 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class ReshareTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[50];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 1;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {secret, Secrets.split(secret, 5, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitPerByte(secret, 5, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitGF256(secret, 5, 3, rnd)});
+		p.add(new Object[] {secret, Secrets.splitBlocks(secret, 5, 3, 16, rnd)});
+		p.add(new Object[] {secret, Secrets.splitRamp(secret, 5, 3, 1, rnd)});
+		return p;
+	}
+	
+	private byte[] secret;
+	private Part[] parts;
+	
+	public ReshareTest(byte[] secret, Part[] parts) {
+		this.secret = secret;
+		this.parts = parts;
+	}
+	
+	@Test
+	public void testReshare() {
+		Random rnd = new Random(1L);
+		Part[] fresh = Secrets.reshare(Arrays.copyOfRange(parts, 1, 4), 7, 4, rnd);
+		Assert.assertEquals(7, fresh.length);
+		for(Part p : fresh) {
+			Assert.assertSame(parts[0].getClass(), p.getClass());
+			Assert.assertEquals(4, p.getRequiredParts());
+		}
+		Assert.assertArrayEquals(secret, Secrets.join(Arrays.copyOfRange(fresh, 0, 4)));
+		Assert.assertArrayEquals(secret, Secrets.join(Arrays.copyOfRange(fresh, 3, 7)));
+	}
+	
+	@Test
+	public void testRefresh() {
+		Random rnd = new Random(2L);
+		Part[] fresh = Secrets.reshare(parts, 5, 3, rnd);
+		for(Part p : fresh) {
+			for(Part q : parts) {
+				if(p.getPoint().getX().equals(q.getPoint().getX()))
+					Assert.assertFalse(p.getPoint().getY().equals(q.getPoint().getY()));
+			}
+		}
+		Assert.assertArrayEquals(secret, Secrets.join(Arrays.copyOfRange(fresh, 2, 5)));
+	}
+	
+	@Test
+	public void testBatch() {
+		Random rnd = new Random(3L);
+		byte[][] secrets = new byte[4][];
+		for(int i = 0; i < secrets.length; i++) {
+			secrets[i] = new byte[10 * (i + 1)];
+			rnd.nextBytes(secrets[i]);
+		}
+		Part[][] held = new Part[3][secrets.length];
+		for(int i = 0; i < secrets.length; i++) {
+			Part[] p = Secrets.reshare(parts, 5, 3, rnd);
+			Part[] s = Secrets.split(secrets[i], 5, 3, rnd);
+			for(int j = 0; j < held.length; j++)
+				held[j][i] = (i % 2 == 0 ? p : s)[j + 1];
+		}
+		Part[][] fresh = Secrets.reshare(held, 6, 2, rnd);
+		Assert.assertEquals(6, fresh.length);
+		byte[][] joined = Secrets.join(new Part[][] {fresh[5], fresh[0]});
+		for(int i = 0; i < secrets.length; i++)
+			Assert.assertArrayEquals(i % 2 == 0 ? secret : secrets[i], joined[i]);
+	}
+	
+	@Test
+	public void testChunks() {
+		Random rnd = new Random(5L);
+		byte[] big = new byte[40000];
+		rnd.nextBytes(big);
+		Part[] p;
+		if(parts[0] instanceof PerBytePart)
+			p = Secrets.splitPerByte(big, 3, 2, rnd);
+		else if(parts[0] instanceof GF256Part)
+			p = Secrets.splitGF256(big, 3, 2, rnd);
+		else if(parts[0] instanceof BlockPart)
+			p = Secrets.splitBlocks(big, 3, 2, 64, rnd);
+		else
+			return;
+		Part[] fresh = Secrets.reshare(Arrays.copyOfRange(p, 1, 3), 3, 2, rnd);
+		Assert.assertArrayEquals(big, Secrets.join(Arrays.copyOfRange(fresh, 0, 2)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooFewParts() {
+		Secrets.reshare(Arrays.copyOfRange(parts, 0, 2), 5, 3, new Random(4L));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyBlockParts() {
+		byte[] b = new byte[8];
+		Secrets.reshare(Secrets.splitBlocks(b, 3, 2, 1, new Random(6L)), 257, 2, new Random(7L));
+	}
+}
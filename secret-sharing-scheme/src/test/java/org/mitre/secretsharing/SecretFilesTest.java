@@ -0,0 +1,124 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SecretFilesTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private byte[] secret;
+	private File secretFile;
+	
+	@Before
+	public void before() throws Exception {
+		secret = new byte[2 * SecretStreams.CHUNK_SIZE + 17];
+		new Random(0L).nextBytes(secret);
+		secretFile = folder.newFile();
+		FileOutputStream out = new FileOutputStream(secretFile);
+		try {
+			out.write(secret);
+		} finally {
+			out.close();
+		}
+	}
+	
+	private File[] files(int n) throws Exception {
+		File[] f = new File[n];
+		for(int i = 0; i < n; i++)
+			f[i] = folder.newFile();
+		return f;
+	}
+	
+	private byte[] read(File f) throws Exception {
+		FileInputStream in = new FileInputStream(f);
+		try {
+			byte[] b = new byte[(int) f.length()];
+			Assert.assertEquals(b.length, in.read(b));
+			return b;
+		} finally {
+			in.close();
+		}
+	}
+	
+	@Test
+	public void testPerByte() throws Exception {
+		File[] shares = files(5);
+		Assert.assertEquals(secret.length, SecretFiles.splitPerByte(secretFile, shares, 3, new Random(0L)));
+		ByteArrayOutputStream[] expected = new ByteArrayOutputStream[shares.length];
+		for(int i = 0; i < expected.length; i++)
+			expected[i] = new ByteArrayOutputStream();
+		SecretStreams.splitPerByte(new ByteArrayInputStream(secret), (OutputStream[]) expected, 3, new Random(0L));
+		for(int i = 0; i < shares.length; i++)
+			Assert.assertTrue(Arrays.equals(expected[i].toByteArray(), read(shares[i])));
+		
+		File joined = folder.newFile();
+		Assert.assertEquals(secret.length, SecretFiles.join(Arrays.copyOfRange(shares, 1, 4), joined));
+		Assert.assertTrue(Arrays.equals(secret, read(joined)));
+	}
+	
+	@Test
+	public void testGF256Regions() throws Exception {
+		File[] shares = files(4);
+		Random rnd = new Random(0L);
+		SecretFiles.split(secretFile, shares, 2, rnd, GF256Part.MODULUS, GF256.xs(shares.length, rnd), 1000);
+		File joined = folder.newFile();
+		SecretFiles.join(Arrays.copyOfRange(shares, 2, 4), joined, 999);
+		Assert.assertTrue(Arrays.equals(secret, read(joined)));
+		
+		InputStream[] in = new InputStream[] {new FileInputStream(shares[0]), new FileInputStream(shares[3])};
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		try {
+			SecretStreams.join(in, streamed);
+		} finally {
+			for(InputStream i : in)
+				i.close();
+		}
+		Assert.assertTrue(Arrays.equals(secret, streamed.toByteArray()));
+	}
+	
+	@Test
+	public void testEmpty() throws Exception {
+		File empty = folder.newFile();
+		File[] shares = files(3);
+		SecretFiles.splitGF256(empty, shares, 2, new Random(0L));
+		File joined = folder.newFile();
+		Assert.assertEquals(0, SecretFiles.join(shares, joined));
+		Assert.assertEquals(0, joined.length());
+	}
+}
@@ -0,0 +1,169 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mitre.secretsharing.codec.InputStreamByteIterator;
+import org.mitre.secretsharing.util.BytesReadable;
+
+@RunWith(Parameterized.class)
+public class SecretStreamsTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		List<Object[]> p = new ArrayList<Object[]>();
+		for(int length : new int[] {0, 1, 100, SecretStreams.CHUNK_SIZE, 2 * SecretStreams.CHUNK_SIZE + 17}) {
+			byte[] secret = new byte[length];
+			new Random(length).nextBytes(secret);
+			p.add(new Object[] {secret});
+		}
+		return p;
+	}
+	
+	private byte[] secret;
+	
+	public SecretStreamsTest(byte[] secret) {
+		this.secret = secret;
+	}
+	
+	private static ByteArrayOutputStream[] buffers(int n) {
+		ByteArrayOutputStream[] out = new ByteArrayOutputStream[n];
+		for(int i = 0; i < n; i++)
+			out[i] = new ByteArrayOutputStream();
+		return out;
+	}
+	
+	private static void assertShare(Part expected, byte[] share, int width) throws Exception {
+		InputStream in = new ByteArrayInputStream(share);
+		BytesReadable r = new BytesReadable(new InputStreamByteIterator(in));
+		Assert.assertEquals(SecretStreams.HEADER_VERSION, r.readInt());
+		Assert.assertEquals(expected.getRequiredParts(), r.readInt());
+		Assert.assertEquals(expected.getModulus(), r.readBigInteger());
+		Assert.assertEquals(expected.getPoint().getX(), r.readBigInteger());
+		byte[] body = Arrays.copyOfRange(share, share.length - in.available(), share.length);
+		Assert.assertEquals(expected.getLength() * width, body.length);
+		Assert.assertEquals(expected.getPoint().getY(), new BigInteger(1, body));
+	}
+	
+	@Test
+	public void testSplitPerByte() throws Exception {
+		ByteArrayOutputStream[] out = buffers(5);
+		long length = SecretStreams.splitPerByte(new ByteArrayInputStream(secret), (OutputStream[]) out, 3, new Random(0L));
+		Assert.assertEquals(secret.length, length);
+		PerBytePart[] parts = Secrets.splitPerByte(secret, 5, 3, new Random(0L));
+		for(int i = 0; i < parts.length; i++)
+			assertShare(parts[i], out[i].toByteArray(), 2);
+	}
+	
+	@Test
+	public void testSplitGF256() throws Exception {
+		ByteArrayOutputStream[] out = buffers(5);
+		long length = SecretStreams.splitGF256(new ByteArrayInputStream(secret), (OutputStream[]) out, 3, new Random(0L));
+		Assert.assertEquals(secret.length, length);
+		GF256Part[] parts = Secrets.splitGF256(secret, 5, 3, new Random(0L));
+		for(int i = 0; i < parts.length; i++)
+			assertShare(parts[i], out[i].toByteArray(), 1);
+	}
+	
+	private static InputStream[] inputs(ByteArrayOutputStream[] out, int from, int to) {
+		InputStream[] in = new InputStream[to - from];
+		for(int i = from; i < to; i++)
+			in[i - from] = new ByteArrayInputStream(out[i].toByteArray());
+		return in;
+	}
+	
+	private byte[] join(InputStream[] in) throws Exception {
+		ByteArrayOutputStream secret = new ByteArrayOutputStream();
+		long length = SecretStreams.join(in, secret);
+		Assert.assertEquals(secret.size(), length);
+		return secret.toByteArray();
+	}
+	
+	@Test
+	public void testJoinPerByte() throws Exception {
+		ByteArrayOutputStream[] out = buffers(5);
+		SecretStreams.splitPerByte(new ByteArrayInputStream(secret), (OutputStream[]) out, 3, new Random(0L));
+		Assert.assertTrue(Arrays.equals(secret, join(inputs(out, 0, 3))));
+		Assert.assertTrue(Arrays.equals(secret, join(inputs(out, 1, 5))));
+	}
+	
+	@Test
+	public void testJoinGF256() throws Exception {
+		ByteArrayOutputStream[] out = buffers(5);
+		SecretStreams.splitGF256(new ByteArrayInputStream(secret), (OutputStream[]) out, 3, new Random(0L));
+		Assert.assertTrue(Arrays.equals(secret, join(inputs(out, 0, 3))));
+		Assert.assertTrue(Arrays.equals(secret, join(inputs(out, 2, 5))));
+	}
+	
+	@Test
+	public void testChannels() throws Exception {
+		ByteArrayOutputStream[] out = buffers(4);
+		WritableByteChannel[] wc = new WritableByteChannel[out.length];
+		for(int i = 0; i < out.length; i++)
+			wc[i] = Channels.newChannel(out[i]);
+		SecretStreams.splitGF256(Channels.newChannel(new ByteArrayInputStream(secret)), wc, 2, new Random(0L));
+		InputStream[] in = inputs(out, 2, 4);
+		ReadableByteChannel[] rc = new ReadableByteChannel[in.length];
+		for(int i = 0; i < in.length; i++)
+			rc[i] = Channels.newChannel(in[i]);
+		ByteArrayOutputStream joined = new ByteArrayOutputStream();
+		SecretStreams.join(rc, Channels.newChannel(joined));
+		Assert.assertTrue(Arrays.equals(secret, joined.toByteArray()));
+	}
+	
+	@Test(expected = EOFException.class)
+	public void testTruncated() throws Exception {
+		ByteArrayOutputStream[] out = buffers(3);
+		SecretStreams.splitGF256(new ByteArrayInputStream(secret), (OutputStream[]) out, 2, new Random(0L));
+		byte[] share = out[0].toByteArray();
+		join(new InputStream[] {
+				new ByteArrayInputStream(share, 0, share.length - 1),
+				new ByteArrayInputStream(out[1].toByteArray()),
+		});
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGF256XOutOfRange() throws Exception {
+		join(new InputStream[] {
+				new ByteArrayInputStream(SecretStreams.header(2, GF256Part.MODULUS, 1)),
+				new ByteArrayInputStream(SecretStreams.header(2, GF256Part.MODULUS, 256)),
+		});
+	}
+}
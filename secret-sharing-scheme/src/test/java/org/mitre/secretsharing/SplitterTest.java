@@ -0,0 +1,104 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mitre.secretsharing.Splitter.Scheme;
+
+@RunWith(Parameterized.class)
+public class SplitterTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		return Arrays.asList(new Object[][] {
+				{Scheme.MULTIBYTE},
+				{Scheme.PER_BYTE},
+				{Scheme.GF256},
+				{Scheme.BLOCKS},
+		});
+	}
+	
+	private Scheme scheme;
+	
+	public SplitterTest(Scheme scheme) {
+		this.scheme = scheme;
+	}
+	
+	private static Part[] split(Scheme scheme, byte[] secret, Random rnd) {
+		switch(scheme) {
+		case PER_BYTE:
+			return Secrets.splitPerByte(secret, 5, 3, rnd);
+		case GF256:
+			return Secrets.splitGF256(secret, 5, 3, rnd);
+		case BLOCKS:
+			return Secrets.splitBlocks(secret, 5, 3, 8, rnd);
+		default:
+			return Secrets.splitMultibyte(secret, 5, 3, rnd);
+		}
+	}
+	
+	@Test
+	public void testSameAsSecrets() {
+		Splitter splitter = new Splitter(scheme, 5, 3, 8, new Random(1L));
+		Random rnd = new Random(1L);
+		Random data = new Random(0L);
+		for(int len : new int[] {17, 17, 1, 40, 40}) {
+			byte[] secret = new byte[len];
+			data.nextBytes(secret);
+			Part[] expected = split(scheme, secret, rnd);
+			Part[] actual = splitter.split(secret);
+			Assert.assertEquals(expected.length, actual.length);
+			for(int i = 0; i < expected.length; i++)
+				Assert.assertEquals(expected[i].toString(), actual[i].toString());
+		}
+	}
+	
+	@Test
+	public void testJoiner() {
+		Splitter splitter = new Splitter(scheme, 5, 3, 8, new Random(1L));
+		Joiner joiner = new Joiner();
+		Random data = new Random(0L);
+		for(int len : new int[] {17, 17, 1, 40, 3}) {
+			byte[] secret = new byte[len];
+			data.nextBytes(secret);
+			secret[0] = 1;
+			Part[] parts = splitter.split(secret);
+			Assert.assertTrue(Arrays.equals(secret, joiner.join(Arrays.copyOfRange(parts, 1, 4))));
+			Assert.assertTrue(Arrays.equals(secret, joiner.join(parts)));
+			byte[] buf = new byte[len + 2];
+			Assert.assertEquals(len, joiner.join(Arrays.copyOfRange(parts, 2, 5), buf, 2));
+			Assert.assertTrue(Arrays.equals(secret, Arrays.copyOfRange(buf, 2, buf.length)));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidConfiguration() {
+		new Splitter(scheme, 3, 5, new Random(1L));
+	}
+}
@@ -0,0 +1,102 @@
+/*
+
+Copyright 2014 The MITRE Corporation
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+
+This project contains content developed by The MITRE Corporation. If this 
+code is used in a deployment or embedded within another project, it is 
+requested that you send an email to opensource@mitre.org in order to let 
+us know where this software is being used.
+
+ */
+package org.mitre.secretsharing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class VerifyTest {
+	@Parameters
+	public static Iterable<Object[]> params() {
+		byte[] secret = new byte[50];
+		Random rnd = new Random(0L);
+		rnd.nextBytes(secret);
+		secret[0] = 1;
+		List<Object[]> p = new ArrayList<Object[]>();
+		p.add(new Object[] {Secrets.split(secret, 7, 3, rnd)});
+		p.add(new Object[] {Secrets.splitPerByte(secret, 7, 3, rnd)});
+		p.add(new Object[] {Secrets.splitGF256(secret, 7, 3, rnd)});
+		p.add(new Object[] {Secrets.splitBlocks(secret, 7, 3, 16, rnd)});
+		p.add(new Object[] {Secrets.splitRamp(secret, 7, 3, 1, rnd)});
+		return p;
+	}
+	
+	private Part[] parts;
+	
+	public VerifyTest(Part[] parts) {
+		this.parts = parts;
+	}
+	
+	/**
+	 * Return a copy of a part with one bit of its Y value flipped
+	 */
+	static Part corrupt(Part p, int bit) {
+		BigPoint point = new BigPoint(p.getPoint().getX(), p.getPoint().getY().flipBit(bit));
+		if(p instanceof PerBytePart)
+			return new PerBytePart(p.getVersion(), p.getLength(), p.getRequiredParts(), point);
+		if(p instanceof GF256Part)
+			return new GF256Part(p.getVersion(), p.getLength(), p.getRequiredParts(), point);
+		if(p instanceof BlockPart)
+			return new BlockPart(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), ((BlockPart) p).getBlockSize(), point);
+		if(p instanceof DispersalPart)
+			return new DispersalPart(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), ((DispersalPart) p).getBlockSize(), ((DispersalPart) p).getDataSymbols(), point);
+		return new Part(p.getVersion(), p.getLength(), p.getRequiredParts(), p.getModulus(), point);
+	}
+	
+	@Test
+	public void testAllAgree() {
+		Assert.assertEquals(0, Secrets.verify(parts).length);
+		Assert.assertEquals(0, Secrets.verify(Arrays.copyOf(parts, 3)).length);
+	}
+	
+	@Test
+	public void testReportsCorrupted() {
+		Part[] p = parts.clone();
+		List<Part> chosen = Arrays.asList(Secrets.select(parts));
+		int last = parts.length - 1;
+		while(chosen.contains(parts[last]))
+			last--;
+		p[last] = corrupt(p[last], 3);
+		Part[] bad = Secrets.verify(p);
+		Assert.assertEquals(1, bad.length);
+		Assert.assertSame(p[last], bad[0]);
+	}
+	
+	@Test
+	public void testReportsConflictingRepeat() {
+		Part[] p = Arrays.copyOf(parts, parts.length + 1);
+		p[parts.length] = corrupt(Secrets.select(parts)[0], 0);
+		Part[] bad = Secrets.verify(p);
+		Assert.assertEquals(1, bad.length);
+		Assert.assertSame(p[parts.length], bad[0]);
+	}
+}
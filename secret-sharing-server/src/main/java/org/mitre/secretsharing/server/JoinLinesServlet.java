@@ -6,16 +6,13 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.mitre.secretsharing.Part;
+import org.mitre.secretsharing.JoinAccumulator;
 import org.mitre.secretsharing.Secrets;
 import org.mitre.secretsharing.codec.PartFormats;
 
@@ -26,14 +23,14 @@ public class JoinLinesServlet extends HttpServlet {
 	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
 		try {
 			BufferedReader lines = new BufferedReader(new InputStreamReader(req.getInputStream(), Charset.forName("UTF-8")));
-			List<Part> parts = new ArrayList<>();
-			for(String line = lines.readLine(); line != null; line = lines.readLine()) {
+			JoinAccumulator parts = new JoinAccumulator();
+			String line;
+			while(!parts.isReady() && (line = lines.readLine()) != null) {
 				if(line.trim().isEmpty())
 					continue;
 				parts.add(PartFormats.parse(line));
 			}
-			Part[] p = parts.toArray(new Part[0]);
-			byte[] secret = p[0].join(Arrays.copyOfRange(p, 1, p.length));
+			byte[] secret = parts.getSecret();
 			Writer writer = new OutputStreamWriter(resp.getOutputStream(), Charset.forName("UTF-8"));
 			writer.write(Base64Variants.MIME.encode(secret));
 			writer.flush();